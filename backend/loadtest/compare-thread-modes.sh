@@ -0,0 +1,32 @@
+#!/bin/bash
+# Compares platform-thread and virtual-thread mode under the same 1-CPU limit as the k8s pod.
+# Requires the postgres container from docker-compose.yml to be running.
+#
+# Usage: ./loadtest/compare-thread-modes.sh [concurrency...]
+
+set -e
+cd "$(dirname "$0")/.."
+
+CONCURRENCY=${@:-100 400 1000}
+DURATION=${DURATION:-30}
+PATHS=${PATHS:-"/api/posts?page=5,/api/posts/1/comments/threads,/api/posts?cursor="}
+IMAGE=board-backend:loadtest
+
+docker build -t $IMAGE .
+
+for mode in false true; do
+    echo "=== VIRTUAL_THREADS_ENABLED=$mode ==="
+    docker run -d --rm --name board-loadtest --cpus=1 --memory=1g \
+        --network board-network -p 8080:8080 \
+        -e DB_HOST=postgres -e VIRTUAL_THREADS_ENABLED=$mode $IMAGE > /dev/null
+    until curl -sf http://localhost:8080/actuator/health > /dev/null; do sleep 2; done
+
+    # Warm up the JIT before measuring
+    ./gradlew -q loadTest -Pload.args="http://localhost:8080 100 30 $PATHS" > /dev/null
+    for c in $CONCURRENCY; do
+        ./gradlew -q loadTest -Pload.args="http://localhost:8080 $c $DURATION $PATHS"
+    done
+
+    docker logs board-loadtest 2>&1 | grep -c "Virtual thread pinned" || true
+    docker stop board-loadtest > /dev/null
+done
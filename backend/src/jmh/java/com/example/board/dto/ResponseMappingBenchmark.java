@@ -0,0 +1,96 @@
+package com.example.board.dto;
+
+import com.example.board.model.Comment;
+import com.example.board.model.Post;
+import com.example.board.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity-to-DTO mapping and JSON serialization cost of the read endpoints
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    private ObjectMapper objectMapper;
+    private List<Post> posts;
+    private List<Comment> comments;
+    private Page<PostResponse> postPage;
+
+    @Setup
+    public void setup() {
+        // Same configuration Spring Boot applies to the MVC message converter
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        User author = User.builder().id(1L).username("user1").email("user1@example.com").build();
+        LocalDateTime now = LocalDateTime.now();
+        String content = "Spring Boot로 간단한 게시판을 만들어봅시다. JPA, Spring Security, JWT를 활용합니다. ".repeat(20);
+
+        posts = new ArrayList<>();
+        for (long i = 1; i <= PAGE_SIZE; i++) {
+            posts.add(Post.builder().id(i).title("게시글 " + i).content(content).author(author)
+                    .viewCount(i * 10).createdAt(now).updatedAt(now).build());
+        }
+
+        comments = new ArrayList<>();
+        Comment root = null;
+        for (long i = 1; i <= 50; i++) {
+            Comment comment = Comment.builder().id(i).content("좋은 글 감사합니다! " + i).author(author)
+                    .post(posts.get(0)).parent(i % 5 == 0 ? root : null).createdAt(now).build();
+            if (comment.getParent() == null) {
+                root = comment;
+            }
+            comments.add(comment);
+        }
+
+        postPage = new PageImpl<>(posts.stream().map(PostResponse::from).toList(),
+                PageRequest.of(0, PAGE_SIZE, Sort.by("createdAt").descending()), 1000);
+    }
+
+    @Benchmark
+    public List<PostResponse> mapPostPage() {
+        return posts.stream().map(PostResponse::from).toList();
+    }
+
+    @Benchmark
+    public List<CommentResponse> mapComments() {
+        return comments.stream().map(CommentResponse::from).toList();
+    }
+
+    @Benchmark
+    public byte[] serializePostPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(postPage);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePostPage() throws JsonProcessingException {
+        Page<PostResponse> page = new PageImpl<>(posts.stream().map(PostResponse::from).toList(),
+                postPage.getPageable(), postPage.getTotalElements());
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
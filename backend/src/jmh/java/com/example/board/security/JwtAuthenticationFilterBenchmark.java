@@ -0,0 +1,106 @@
+package com.example.board.security;
+
+import com.example.board.model.User;
+import com.example.board.repository.TokenRevocationRepository;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.ServletException;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+// Full JwtAuthenticationFilter pass for one request, as seen by every authenticated API call
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-for-jwt-token-generation-and-validation-long-enough";
+
+    private JwtAuthenticationFilter filter;
+    private String claimsToken;
+    private String legacyToken;
+
+    @Setup
+    public void setup() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 10000L);
+        jwtUtil.init();
+
+        TokenRevocationRepository revocationRepository = Mockito.mock(TokenRevocationRepository.class);
+        when(revocationRepository.findByCreatedAtAfter(Mockito.any())).thenReturn(List.of());
+        TokenRevocationService revocationService = new TokenRevocationService(revocationRepository);
+        ReflectionTestUtils.setField(revocationService, "expiration", 86400000L);
+        revocationService.init();
+
+        UserDetailsService userDetailsService = Mockito.mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername(anyString())).thenReturn(
+                org.springframework.security.core.userdetails.User.builder()
+                        .username("user1")
+                        .password("{noop}unused")
+                        .authorities(new SimpleGrantedAuthority("ROLE_USER"))
+                        .build());
+
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, revocationService, new SimpleMeterRegistry());
+        claimsToken = jwtUtil.generateToken(User.builder().id(2L).username("user1").build());
+        // Subject-only token as issued before role claims, which still goes through UserDetailsService
+        legacyToken = Jwts.builder()
+                .subject("user1")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 86400000L))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    @Benchmark
+    public Authentication claimsToken() throws ServletException, IOException {
+        return authenticate(claimsToken);
+    }
+
+    @Benchmark
+    public Authentication legacyTokenWithUserLookup() throws ServletException, IOException {
+        return authenticate(legacyToken);
+    }
+
+    private Authentication authenticate(String token) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
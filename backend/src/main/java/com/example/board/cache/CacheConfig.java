@@ -0,0 +1,38 @@
+package com.example.board.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Outside the transaction advice, so a cache hit never opens a transaction
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    @Value("${board.cache.post-detail:maximumSize=10000,expireAfterWrite=60s,recordStats}")
+    private String postDetailSpec;
+
+    @Value("${board.cache.post-pages:maximumSize=100,expireAfterWrite=30s,recordStats}")
+    private String postPagesSpec;
+
+    @Value("${board.cache.comments:maximumSize=5000,expireAfterWrite=60s,recordStats}")
+    private String commentsSpec;
+
+    @Value("${board.cache.post-counts:maximumSize=1000,expireAfterWrite=10s,recordStats}")
+    private String postCountsSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheNames.POST_DETAIL, Caffeine.from(postDetailSpec).build());
+        cacheManager.registerCustomCache(CacheNames.POST_PAGES, Caffeine.from(postPagesSpec).build());
+        cacheManager.registerCustomCache(CacheNames.COMMENTS, Caffeine.from(commentsSpec).build());
+        cacheManager.registerCustomCache(CacheNames.POST_COUNTS, Caffeine.from(postCountsSpec).build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.board.cache;
+
+import com.example.board.notify.PgNotificationBus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Evicts cache entries on this replica and broadcasts the eviction to the others. With read
+// replicas (see ReplicaConfig), a read just after the write may refill an entry from a replica
+// that has not replayed the write yet, so every broadcast eviction is repeated once such a
+// replica would have caught up or been taken out by the health check.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidator {
+
+    private static final String CHANNEL = "board_cache";
+    private static final String ALL_KEYS = "*";
+
+    private final CacheManager cacheManager;
+    private final PgNotificationBus notificationBus;
+
+    @Value("${board.datasource.replica-urls:}")
+    private String replicaUrls;
+
+    @Value("${board.datasource.replica-max-lag:5s}")
+    private Duration replicaMaxLag;
+
+    @Value("${board.datasource.health-check-interval-ms:5000}")
+    private long healthCheckIntervalMs;
+
+    // Only set when there are replicas
+    private ScheduledExecutorService repeater;
+    private long repeatAfterMs;
+
+    @PostConstruct
+    public void init() {
+        notificationBus.subscribe(CHANNEL, this::onNotification);
+        notificationBus.onReconnect(this::clearAll);
+        if (!replicaUrls.isBlank()) {
+            repeatAfterMs = replicaMaxLag.toMillis() + healthCheckIntervalMs;
+            repeater = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cache-evict-repeater");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (repeater != null) {
+            repeater.shutdownNow();
+        }
+    }
+
+    public void evict(String cacheName, Object key) {
+        evictNowAndLater(cacheName, key);
+        notificationBus.publish(CHANNEL, PgNotificationBus.NODE_ID + "|" + cacheName + "|" + key);
+    }
+
+    public void clear(String cacheName) {
+        evict(cacheName, ALL_KEYS);
+    }
+
+    // Evicts without telling other replicas, for state that only this replica changed
+    public void evictLocally(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (ALL_KEYS.equals(key)) {
+            cache.clear();
+        } else {
+            cache.evict(key);
+        }
+    }
+
+    private void onNotification(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3 || PgNotificationBus.NODE_ID.equals(parts[0])) {
+            return;
+        }
+        evictNowAndLater(parts[1], parseKey(parts[2]));
+    }
+
+    private void evictNowAndLater(String cacheName, Object key) {
+        evictLocally(cacheName, key);
+        if (repeater != null) {
+            repeater.schedule(() -> evictLocally(cacheName, key), repeatAfterMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void clearAll() {
+        log.info("Clearing caches after notification listener reconnect");
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    // Post and comment caches are keyed by Long ids, page caches by strings
+    private Object parseKey(String key) {
+        if (ALL_KEYS.equals(key)) {
+            return key;
+        }
+        try {
+            return Long.valueOf(key);
+        } catch (NumberFormatException e) {
+            return key;
+        }
+    }
+}
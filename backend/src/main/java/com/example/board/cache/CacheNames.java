@@ -0,0 +1,14 @@
+package com.example.board.cache;
+
+public final class CacheNames {
+    public static final String POST_DETAIL = "postDetail";
+    public static final String POST_PAGES = "postPages";
+    public static final String COMMENTS = "comments";
+    public static final String POST_COUNTS = "postCounts";
+
+    // Only the first few list pages are hot enough to be worth caching
+    public static final int CACHED_PAGE_COUNT = 3;
+
+    private CacheNames() {
+    }
+}
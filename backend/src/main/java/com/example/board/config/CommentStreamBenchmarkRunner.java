@@ -0,0 +1,141 @@
+package com.example.board.config;
+
+import com.example.board.dto.CommentResponse;
+import com.example.board.repository.CommentRepository;
+import com.example.board.service.CommentStreamService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+// Compares materializing a long comment thread with streaming it, per request on this thread:
+// bytes allocated, collections triggered, time to first byte and total time.
+// Run with: SPRING_PROFILES_ACTIVE=comment-stream-benchmark ./gradlew bootRun
+@Slf4j
+@Component
+@Profile("comment-stream-benchmark")
+@Order(100)
+@RequiredArgsConstructor
+public class CommentStreamBenchmarkRunner implements CommandLineRunner {
+
+    private static final String POST_TITLE = "comment-stream-benchmark";
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CommentRepository commentRepository;
+    private final CommentStreamService commentStreamService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${board.comment-stream-benchmark.comments:50000}")
+    private int commentCount;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Long postId = ensurePost();
+        log.info("Post {} has {} comments", postId, commentCount);
+
+        Result list = measure(out -> {
+            List<CommentResponse> comments = commentRepository.findByPostIdOrderByCreatedAtAsc(postId, Limit.unlimited()).stream()
+                    .map(CommentResponse::from)
+                    .toList();
+            objectMapper.writeValue(out, comments);
+        });
+        Result stream = measure(out -> commentStreamService.writeComments(postId, out));
+
+        log.info(String.format("%-8s %14s %8s %12s %12s %12s", "mode", "allocated(MB)", "GCs", "GC(ms)", "first(ms)", "total(ms)"));
+        log.info(list.format("list"));
+        log.info(stream.format("stream"));
+    }
+
+    private Long ensurePost() {
+        List<Long> existing = jdbcTemplate.queryForList("SELECT id FROM posts WHERE title = ?", Long.class, POST_TITLE);
+        if (!existing.isEmpty()) {
+            return existing.get(0);
+        }
+        Long authorId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'admin'", Long.class);
+        Long postId = jdbcTemplate.queryForObject("INSERT INTO posts (title, content, author_id, view_count, created_at, updated_at) " +
+                "VALUES (?, 'A very long thread', ?, 0, now(), now()) RETURNING id", Long.class, POST_TITLE, authorId);
+        jdbcTemplate.update("INSERT INTO comments (content, author_id, post_id, created_at) " +
+                "SELECT '댓글 번호 ' || g || ' - a typical comment of moderate length for a busy thread', ?, ?, " +
+                "now() + g * interval '1 second' FROM generate_series(1, ?) g", authorId, postId, commentCount);
+        return postId;
+    }
+
+    private Result measure(Body body) throws IOException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            body.write(OutputStream.nullOutputStream());
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long gcCount = gcCount();
+        long gcTime = gcTime();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long firstByteNanos = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            FirstByteStream out = new FirstByteStream();
+            long runStart = System.nanoTime();
+            body.write(out);
+            firstByteNanos += out.firstWriteAt - runStart;
+        }
+        return new Result(
+                (threads.getCurrentThreadAllocatedBytes() - allocated) / MEASURED_RUNS,
+                (gcCount() - gcCount) / (double) MEASURED_RUNS,
+                (gcTime() - gcTime) / (double) MEASURED_RUNS,
+                firstByteNanos / 1_000_000.0 / MEASURED_RUNS,
+                (System.nanoTime() - start) / 1_000_000.0 / MEASURED_RUNS);
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private interface Body {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static final class FirstByteStream extends OutputStream {
+
+        private long firstWriteAt;
+
+        @Override
+        public void write(int b) {
+            mark();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            mark();
+        }
+
+        private void mark() {
+            if (firstWriteAt == 0) {
+                firstWriteAt = System.nanoTime();
+            }
+        }
+    }
+
+    private record Result(long allocatedBytes, double gcs, double gcMillis, double firstByteMillis, double totalMillis) {
+
+        String format(String mode) {
+            return String.format("%-8s %14.1f %8.1f %12.1f %12.1f %12.1f",
+                    mode, allocatedBytes / 1024.0 / 1024.0, gcs, gcMillis, firstByteMillis, totalMillis);
+        }
+    }
+}
@@ -8,10 +8,15 @@ import com.example.board.repository.PostRepository;
 import com.example.board.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+// Runs before the profile-specific generators so the demo accounts always exist
 @Component
+@Order(0)
 @RequiredArgsConstructor
 public class DataLoader implements CommandLineRunner {
 
@@ -30,7 +35,6 @@ public class DataLoader implements CommandLineRunner {
                     .password(passwordEncoder.encode("admin123"))
                     .role(User.Role.ADMIN)
                     .build();
-            userRepository.save(admin);
 
             User user1 = User.builder()
                     .username("user1")
@@ -38,7 +42,6 @@ public class DataLoader implements CommandLineRunner {
                     .password(passwordEncoder.encode("user123"))
                     .role(User.Role.USER)
                     .build();
-            userRepository.save(user1);
 
             User user2 = User.builder()
                     .username("user2")
@@ -46,7 +49,8 @@ public class DataLoader implements CommandLineRunner {
                     .password(passwordEncoder.encode("user123"))
                     .role(User.Role.USER)
                     .build();
-            userRepository.save(user2);
+            // saveAll runs in one transaction, so the inserts go out as JDBC batches
+            userRepository.saveAll(List.of(admin, user1, user2));
 
             // Create demo posts
             Post post1 = Post.builder()
@@ -54,8 +58,9 @@ public class DataLoader implements CommandLineRunner {
                     .content("Docker와 Kubernetes를 배우기 위한 첫 번째 게시글입니다. 컨테이너화는 현대 애플리케이션 개발에서 필수적인 기술입니다.")
                     .author(admin)
                     .viewCount(10L)
+                    // The three demo comments below
+                    .commentCount(3L)
                     .build();
-            postRepository.save(post1);
 
             Post post2 = Post.builder()
                     .title("Spring Boot 게시판 만들기")
@@ -63,7 +68,6 @@ public class DataLoader implements CommandLineRunner {
                     .author(user1)
                     .viewCount(5L)
                     .build();
-            postRepository.save(post2);
 
             Post post3 = Post.builder()
                     .title("Next.js로 프론트엔드 개발하기")
@@ -71,7 +75,7 @@ public class DataLoader implements CommandLineRunner {
                     .author(user2)
                     .viewCount(8L)
                     .build();
-            postRepository.save(post3);
+            postRepository.saveAll(List.of(post1, post2, post3));
 
             // Create demo comments
             Comment comment1 = Comment.builder()
@@ -79,14 +83,12 @@ public class DataLoader implements CommandLineRunner {
                     .author(user1)
                     .post(post1)
                     .build();
-            commentRepository.save(comment1);
 
             Comment comment2 = Comment.builder()
                     .content("Docker를 처음 배우는데 도움이 많이 되었습니다.")
                     .author(user2)
                     .post(post1)
                     .build();
-            commentRepository.save(comment2);
 
             Comment reply1 = Comment.builder()
                     .content("도움이 되셨다니 기쁩니다!")
@@ -94,7 +96,7 @@ public class DataLoader implements CommandLineRunner {
                     .post(post1)
                     .parent(comment2)
                     .build();
-            commentRepository.save(reply1);
+            commentRepository.saveAll(List.of(comment1, comment2, reply1));
 
             System.out.println("===================================");
             System.out.println("Demo data loaded successfully!");
@@ -0,0 +1,96 @@
+package com.example.board.config;
+
+import com.example.board.model.Comment;
+import com.example.board.model.Post;
+import com.example.board.model.User;
+import com.example.board.repository.CommentRepository;
+import com.example.board.repository.PostRepository;
+import com.example.board.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Measures JPA insert throughput for a burst of posts with comments, the shape of an import.
+// Every round is rolled back, so only the sequences advance.
+// Run with: SPRING_PROFILES_ACTIVE=insert-benchmark ./gradlew bootRun
+@Slf4j
+@Component
+@Profile("insert-benchmark")
+@Order(100)
+@RequiredArgsConstructor
+public class InsertBenchmarkRunner implements CommandLineRunner {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${board.insert-benchmark.posts:1000}")
+    private int postsPerRound;
+
+    @Value("${board.insert-benchmark.comments-per-post:5}")
+    private int commentsPerPost;
+
+    @Override
+    public void run(String... args) {
+        User author = userRepository.findByUsername("admin").orElseThrow();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Only collected by default in the dev profile
+        statistics.setStatisticsEnabled(true);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            insertRound(author);
+        }
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            insertRound(author);
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long rows = (long) MEASURED_ROUNDS * postsPerRound * (1 + commentsPerPost);
+        log.info(String.format("Inserted %,d rows in %.2f s: %,.0f rows/s, %d statements prepared, %d entity inserts",
+                rows, seconds, rows / seconds, statistics.getPrepareStatementCount(), statistics.getEntityInsertCount()));
+    }
+
+    private void insertRound(User author) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Post> posts = new ArrayList<>(postsPerRound);
+            List<Comment> comments = new ArrayList<>(postsPerRound * commentsPerPost);
+            for (int p = 0; p < postsPerRound; p++) {
+                Post post = Post.builder()
+                        .title("Insert benchmark " + p)
+                        .content("Bulk insert benchmark content for post " + p)
+                        .author(author)
+                        .build();
+                posts.add(post);
+                for (int c = 0; c < commentsPerPost; c++) {
+                    comments.add(Comment.builder()
+                            .content("Benchmark comment " + c)
+                            .author(author)
+                            .post(post)
+                            .build());
+                }
+            }
+            postRepository.saveAll(posts);
+            commentRepository.saveAll(comments);
+            postRepository.flush();
+            status.setRollbackOnly();
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.board.config;
+
+import com.example.board.notify.PgNotificationBus;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps a user's reads on the primary for a window after they wrote, so an author sees their
+// new post before the replicas have replayed it. Reads inside a write request always use the
+// primary, since they validate what is about to be written. Writes are announced over
+// LISTEN/NOTIFY so the window holds whichever app replica the next request lands on.
+// Runs after the security filter chain, which has resolved the user by then.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final String CHANNEL = "board_writes";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final PgNotificationBus notificationBus;
+    private final long windowNanos;
+
+    // Username to the nanoTime its window closes
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFilter(PgNotificationBus notificationBus, Duration window) {
+        this.notificationBus = notificationBus;
+        this.windowNanos = window.toNanos();
+        notificationBus.subscribe(CHANNEL, this::onNotification);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String username = currentUsername();
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        ReplicaRoutingDataSource.forcePrimary(write || (username != null && pinned(username)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.forcePrimary(false);
+            // The window starts once the write has committed
+            if (write && username != null) {
+                pin(username);
+                notificationBus.publish(CHANNEL, PgNotificationBus.NODE_ID + "|" + username);
+            }
+        }
+    }
+
+    // Called from the replica health check so users who stopped writing are forgotten
+    public void prune() {
+        long now = System.nanoTime();
+        pinnedUntil.values().removeIf(until -> until - now < 0);
+    }
+
+    private boolean pinned(String username) {
+        Long until = pinnedUntil.get(username);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    private void pin(String username) {
+        pinnedUntil.put(username, System.nanoTime() + windowNanos);
+    }
+
+    // nodeId|username
+    private void onNotification(String payload) {
+        int separator = payload.indexOf('|');
+        if (separator > 0 && !PgNotificationBus.NODE_ID.equals(payload.substring(0, separator))) {
+            pin(payload.substring(separator + 1));
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.board.config;
+
+import com.example.board.notify.PgNotificationBus;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Read replicas, enabled by listing their JDBC URLs in board.datasource.replica-urls. They share
+// the primary's credentials. Read-only transactions (@Transactional(readOnly = true), which the
+// post and comment repositories default to) go to a replica; writes and everything outside a
+// read-only transaction stay on the primary. Stays a single DataSource bean, so the virtual
+// thread limiter, the statement counter and the plan check wrap it once.
+@Slf4j
+@Configuration
+@ConditionalOnExpression("!'${board.datasource.replica-urls:}'.isBlank()")
+public class ReplicaConfig {
+
+    private ReplicaRoutingDataSource routingDataSource;
+    private ReadYourWritesFilter readYourWritesFilter;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                 @Value("${board.datasource.replica-urls}") List<String> replicaUrls,
+                                 @Value("${board.datasource.replica-pool-size:10}") int replicaPoolSize,
+                                 @Value("${board.datasource.replica-connection-timeout:2s}") Duration connectionTimeout,
+                                 @Value("${board.datasource.replica-max-lag:5s}") Duration maxLag) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(metrics);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(properties.determineUsername());
+            replica.setPassword(properties.determinePassword());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            // A dead replica should cost a request this long, not the 30s default, before falling back
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            // Start even when a replica is down; the health check brings it in later
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.add(replica);
+        }
+        log.info("Routing read-only transactions to {} read replica(s)", replicas.size());
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, maxLag, meterRegistry);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(PgNotificationBus notificationBus,
+                                                     @Value("${board.datasource.read-your-writes:10s}") Duration window) {
+        readYourWritesFilter = new ReadYourWritesFilter(notificationBus, window);
+        return readYourWritesFilter;
+    }
+
+    @Scheduled(fixedDelayString = "${board.datasource.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        routingDataSource.checkReplicas();
+        readYourWritesFilter.prune();
+    }
+
+    @PreDestroy
+    public void closePools() {
+        routingDataSource.close();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.board.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hands read-only transactions a connection to a healthy read replica, round robin, and
+// everything else a connection to the primary. Wrapped in a LazyConnectionDataSourceProxy
+// (see ReplicaConfig) so the choice is made at the first statement, once the transaction's
+// read-only flag is set. A replica that refuses a connection is taken out until the next
+// health check, and its reads fall back to the primary.
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    // 0 while the replica has replayed everything it received, so an idle primary does not read as lag
+    private static final String LAG_SQL = "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE coalesce(extract(epoch FROM now() - pg_last_xact_replay_timestamp()), 'Infinity') END";
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter readWrites;
+    private final Counter replicaReads;
+    private final Counter pinnedReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration maxLag,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLag = maxLag;
+        readWrites = routed(meterRegistry, "primary", "read-write");
+        replicaReads = routed(meterRegistry, "replica", "read");
+        pinnedReads = routed(meterRegistry, "primary", "read-your-writes");
+        fallbackReads = routed(meterRegistry, "primary", "no-healthy-replica");
+        meterRegistry.gauge("board.datasource.replicas.healthy", this.replicas,
+                all -> all.stream().filter(replica -> replica.healthy).count());
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("board.datasource.routed")
+                .description("Connections handed out, by pool and why")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    // Sends this thread's read-only transactions to the primary too, until cleared
+    public static void forcePrimary(boolean force) {
+        if (force) {
+            FORCE_PRIMARY.set(Boolean.TRUE);
+        } else {
+            FORCE_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    // Routed the same way; the Hikari pools behind it refuse credentials other than their own
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(Connector connector) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readWrites.increment();
+            return connector.connect(primary);
+        }
+        if (FORCE_PRIMARY.get() != null) {
+            pinnedReads.increment();
+            return connector.connect(primary);
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = connector.connect(replica.dataSource);
+                replicaReads.increment();
+                return connection;
+            } catch (SQLFeatureNotSupportedException e) {
+                // Says nothing about the replica's health
+                throw e;
+            } catch (SQLException e) {
+                replica.markDown("connection failed: " + e.getMessage());
+            }
+        }
+        fallbackReads.increment();
+        return connector.connect(primary);
+    }
+
+    // Brings replicas back once they answer again and takes out those too far behind
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                rs.next();
+                double lagSeconds = rs.getDouble(1);
+                if (lagSeconds * 1000 > maxLag.toMillis()) {
+                    replica.markDown(String.format("%.1fs behind the primary", lagSeconds));
+                } else {
+                    replica.markUp();
+                }
+            } catch (SQLException e) {
+                replica.markDown("health check failed: " + e.getMessage());
+            }
+        }
+    }
+
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        void markDown(String reason) {
+            if (healthy) {
+                healthy = false;
+                log.warn("Read replica {} out of rotation: {}", dataSource.getPoolName(), reason);
+            }
+        }
+
+        void markUp() {
+            if (!healthy) {
+                healthy = true;
+                log.info("Read replica {} back in rotation", dataSource.getPoolName());
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.board.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+// Bulk-loads a production-sized board through COPY for local performance work.
+// Run with: SPRING_PROFILES_ACTIVE=generate-data ./gradlew bootRun
+// The same seed always produces the same rows. Ids are assigned explicitly after the
+// current maximum and the sequences are moved past them, so don't run it against a live system.
+@Slf4j
+@Component
+@Profile("generate-data")
+@Order(100)
+@RequiredArgsConstructor
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final String USERNAME_PREFIX = "gen-user-";
+    private static final String DEFAULT_PASSWORD = "user123";
+
+    private static final String[] KOREAN_WORDS = {
+            "오늘", "개발", "서버", "질문", "게시판", "데이터", "사용", "방법", "설정", "배포",
+            "프로젝트", "에러", "해결", "공유", "후기", "추천", "회사", "공부", "코드", "리뷰",
+            "성능", "테스트", "운영", "쿠버네티스", "컨테이너", "데이터베이스", "인덱스", "캐시", "모니터링", "장애"
+    };
+
+    private static final String[] PARTICLES = {"를", "을", "은", "는", "이", "가", "에서", "으로", "의", "와", "도"};
+
+    private static final String[] ENGLISH_WORDS = {
+            "the", "and", "with", "for", "how", "Spring", "Docker", "React", "deploy", "build",
+            "query", "latency", "cache", "index", "Kubernetes", "PostgreSQL", "JWT", "bug", "review", "release"
+    };
+
+    private static final String[] COMMENT_OPENERS = {
+            "좋은 글 감사합니다", "저도 같은 문제가 있었어요", "혹시", "Thanks,", "동의합니다", "+1", "질문이 있는데요", "I think"
+    };
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int SPAN_SECONDS = 365 * 24 * 3600;
+    private static final int POSTS_PER_CHUNK = 10_000;
+    private static final int COPY_BUFFER_CHARS = 1 << 20;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${board.generator.users:10000}")
+    private int userCount;
+
+    @Value("${board.generator.posts:1000000}")
+    private int postCount;
+
+    @Value("${board.generator.mean-comments-per-post:4}")
+    private double meanCommentsPerPost;
+
+    @Value("${board.generator.reply-ratio:0.4}")
+    private double replyRatio;
+
+    @Value("${board.generator.seed:42}")
+    private long seed;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users WHERE username = ?", Integer.class, USERNAME_PREFIX + 0);
+        if (existing != null && existing > 0) {
+            log.info("Synthetic data already present, skipping generation");
+            return;
+        }
+
+        Random random = new Random(seed);
+        long firstUserId = nextId("users");
+        long firstPostId = nextId("posts");
+        long nextCommentId = nextId("comments");
+
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            PGConnection pg = connection.unwrap(PGConnection.class);
+
+            try (CopyWriter users = new CopyWriter(pg,
+                    "COPY users (id, username, email, password, role, token_version, created_at) FROM STDIN")) {
+                String hash = passwordEncoder.encode(DEFAULT_PASSWORD);
+                for (int i = 0; i < userCount; i++) {
+                    String username = USERNAME_PREFIX + i;
+                    users.row(firstUserId + i, username, username + "@example.com", hash, "USER", 0,
+                            timestamp(START.minusDays(30).plusSeconds(random.nextInt(30 * 24 * 3600))));
+                }
+            }
+            report("users", userCount, System.nanoTime() - start);
+
+            long comments = 0;
+            long postNanos = 0;
+            long commentNanos = 0;
+            for (int chunkStart = 0; chunkStart < postCount; chunkStart += POSTS_PER_CHUNK) {
+                int chunkEnd = Math.min(postCount, chunkStart + POSTS_PER_CHUNK);
+                long[] postIds = new long[chunkEnd - chunkStart];
+                LocalDateTime[] postTimes = new LocalDateTime[postIds.length];
+                // Drawn up front so each post row carries the comment_count of the comments written after it
+                int[] commentCounts = new int[postIds.length];
+
+                long chunkStartNanos = System.nanoTime();
+                try (CopyWriter posts = new CopyWriter(pg,
+                        "COPY posts (id, title, content, author_id, view_count, comment_count, created_at, updated_at) FROM STDIN")) {
+                    for (int i = 0; i < postIds.length; i++) {
+                        // Posts are ordered by id and time, like a real insert stream
+                        long postNumber = chunkStart + i;
+                        postIds[i] = firstPostId + postNumber;
+                        postTimes[i] = START.plusSeconds(postNumber * SPAN_SECONDS / postCount);
+                        commentCounts[i] = commentCount(random);
+                        String createdAt = timestamp(postTimes[i]);
+                        posts.row(postIds[i], sentence(random, 3 + random.nextInt(8)), content(random),
+                                firstUserId + skewedIndex(random, userCount), skewedViews(random), commentCounts[i],
+                                createdAt, createdAt);
+                    }
+                }
+                long commentStartNanos = System.nanoTime();
+                postNanos += commentStartNanos - chunkStartNanos;
+
+                try (CopyWriter commentRows = new CopyWriter(pg,
+                        "COPY comments (id, content, author_id, post_id, parent_id, created_at) FROM STDIN")) {
+                    for (int i = 0; i < postIds.length; i++) {
+                        int count = commentCounts[i];
+                        long firstId = nextCommentId;
+                        LocalDateTime time = postTimes[i];
+                        for (int c = 0; c < count; c++) {
+                            time = time.plusSeconds(1 + random.nextInt(3600));
+                            // Replies favour recent comments, which produces deep chains as well as wide roots
+                            Long parentId = c > 0 && random.nextDouble() < replyRatio
+                                    ? nextCommentId - 1 - skewedIndex(random, c)
+                                    : null;
+                            commentRows.row(nextCommentId++, comment(random), firstUserId + skewedIndex(random, userCount),
+                                    postIds[i], parentId, timestamp(time));
+                        }
+                        comments += nextCommentId - firstId;
+                    }
+                }
+                commentNanos += System.nanoTime() - commentStartNanos;
+
+                if (chunkEnd % 100_000 == 0 || chunkEnd == postCount) {
+                    log.info("Generated {}/{} posts and {} comments", chunkEnd, postCount, comments);
+                }
+            }
+            report("posts", postCount, postNanos);
+            report("comments", comments, commentNanos);
+        }
+
+        for (String table : new String[]{"users", "posts", "comments"}) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), (SELECT max(id) FROM " + table + "))",
+                    Long.class, table);
+            jdbcTemplate.execute("ANALYZE " + table);
+        }
+        log.info("Synthetic data generated in {} s (users log in with password '{}'); "
+                        + "the full-text index is backfilled once the application is ready",
+                (System.nanoTime() - start) / 1_000_000_000, DEFAULT_PASSWORD);
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT coalesce(max(id), 0) FROM " + table, Long.class);
+        return max + 1;
+    }
+
+    private void report(String table, long rows, long nanos) {
+        double seconds = nanos / 1_000_000_000.0;
+        log.info(String.format("Inserted %,d %s in %.1f s (%,.0f rows/s)", rows, table, seconds, rows / seconds));
+    }
+
+    // Most activity comes from a small set of users, the same way a few posts draw most comments
+    private int skewedIndex(Random random, int size) {
+        return (int) (size * Math.pow(random.nextDouble(), 3));
+    }
+
+    private long skewedViews(Random random) {
+        return (long) (10 / Math.pow(1 - random.nextDouble(), 0.8));
+    }
+
+    private int commentCount(Random random) {
+        double mean = random.nextDouble() < 0.01 ? meanCommentsPerPost * 25 : meanCommentsPerPost * 0.76;
+        return (int) (-Math.log(1 - random.nextDouble()) * mean);
+    }
+
+    private String content(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int paragraphs = 1 + random.nextInt(4);
+        for (int p = 0; p < paragraphs; p++) {
+            if (p > 0) {
+                sb.append("\n\n");
+            }
+            sb.append(sentence(random, 15 + random.nextInt(60)));
+        }
+        return sb.toString();
+    }
+
+    private String comment(Random random) {
+        return COMMENT_OPENERS[random.nextInt(COMMENT_OPENERS.length)] + " " + sentence(random, 3 + random.nextInt(25));
+    }
+
+    private String sentence(Random random, int words) {
+        boolean english = random.nextInt(5) == 0;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            if (english || random.nextInt(6) == 0) {
+                sb.append(ENGLISH_WORDS[skewedIndex(random, ENGLISH_WORDS.length)]);
+            } else {
+                sb.append(KOREAN_WORDS[skewedIndex(random, KOREAN_WORDS.length)]);
+                if (random.nextBoolean()) {
+                    sb.append(PARTICLES[random.nextInt(PARTICLES.length)]);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String timestamp(LocalDateTime time) {
+        return TIMESTAMP.format(time);
+    }
+
+    // Streams rows in COPY text format, flushing to the server in 1 MB pieces
+    private static final class CopyWriter implements AutoCloseable {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 4096);
+
+        CopyWriter(PGConnection connection, String sql) throws SQLException {
+            this.copyIn = connection.getCopyAPI().copyIn(sql);
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append('\t');
+                }
+                if (values[i] == null) {
+                    buffer.append("\\N");
+                } else {
+                    escape(values[i].toString());
+                }
+            }
+            buffer.append('\n');
+            if (buffer.length() >= COPY_BUFFER_CHARS) {
+                flush();
+            }
+        }
+
+        private void escape(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\' -> buffer.append("\\\\");
+                    case '\t' -> buffer.append("\\t");
+                    case '\n' -> buffer.append("\\n");
+                    case '\r' -> buffer.append("\\r");
+                    default -> buffer.append(c);
+                }
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (buffer.length() > 0) {
+                    flush();
+                }
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.board.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+// Extras for spring.threads.virtual.enabled=true: an explicit bound on database concurrency
+// and a JFR watch for virtual threads pinned to their carrier (blocking inside synchronized).
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final int PINNED_STACK_DEPTH = 8;
+
+    private RecordingStream pinningStream;
+
+    @Bean
+    public static BeanPostProcessor dataSourceConcurrencyLimiter(
+            @Value("${board.db.max-concurrency:10}") int maxConcurrency,
+            @Value("${board.db.acquire-timeout-ms:5000}") long acquireTimeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource)) {
+                    log.info("Limiting database concurrency of '{}' to {} connections", beanName, maxConcurrency);
+                    return new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void watchPinning(ApplicationReadyEvent event) {
+        MeterRegistry meterRegistry = event.getApplicationContext().getBean(MeterRegistry.class);
+        Duration threshold = Duration.ofMillis(
+                event.getApplicationContext().getEnvironment().getProperty("board.virtual-threads.pinned-threshold-ms",
+                        Long.class, 20L));
+
+        pinningStream = new RecordingStream();
+        pinningStream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        pinningStream.onEvent("jdk.VirtualThreadPinned", recorded -> {
+            meterRegistry.counter("board.virtual.pinned").increment();
+            log.warn("Virtual thread pinned for {} ms at {}", recorded.getDuration().toMillis(), topFrames(recorded));
+        });
+        pinningStream.startAsync();
+    }
+
+    @PreDestroy
+    public void stopWatching() {
+        if (pinningStream != null) {
+            pinningStream.close();
+        }
+    }
+
+    private String topFrames(RecordedEvent recorded) {
+        if (recorded.getStackTrace() == null) {
+            return "<no stack trace>";
+        }
+        return recorded.getStackTrace().getFrames().stream()
+                .limit(PINNED_STACK_DEPTH)
+                .map(this::describe)
+                .collect(Collectors.joining(" <- "));
+    }
+
+    private String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
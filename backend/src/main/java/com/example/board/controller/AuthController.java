@@ -6,8 +6,13 @@ import com.example.board.dto.SignupRequest;
 import com.example.board.model.User;
 import com.example.board.repository.UserRepository;
 import com.example.board.security.JwtUtil;
+import com.example.board.security.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -25,6 +30,7 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final MeterRegistry meterRegistry;
 
     @PostMapping("/signup")
     public ResponseEntity<?> signup(@Valid @RequestBody SignupRequest request) {
@@ -36,34 +42,58 @@ public class AuthController {
             return ResponseEntity.badRequest().body("Email already exists");
         }
 
+        String encodedPassword;
+        try {
+            encodedPassword = passwordEncoder.encode(request.getPassword());
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e);
+        }
+
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(encodedPassword)
                 .role(User.Role.USER)
                 .build();
 
         userRepository.save(user);
 
-        String token = jwtUtil.generateToken(user.getUsername());
+        String token = jwtUtil.generateToken(user);
         return ResponseEntity.ok(new AuthResponse(token, user.getUsername(), user.getEmail()));
     }
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody AuthRequest request) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-            );
+            // Dominated by the BCrypt comparison in DaoAuthenticationProvider
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Authentication authentication;
+            try {
+                authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
+                );
+            } finally {
+                sample.stop(meterRegistry.timer("board.auth.password.check"));
+            }
 
             User user = userRepository.findByUsername(request.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            String token = jwtUtil.generateToken(user.getUsername());
+            String token = jwtUtil.generateToken(user);
             return ResponseEntity.ok(new AuthResponse(token, user.getUsername(), user.getEmail()));
         } catch (Exception e) {
+            PasswordHashingRejectedException rejected = PasswordHashingRejectedException.find(e);
+            if (rejected != null) {
+                return tooManyRequests(rejected);
+            }
             return ResponseEntity.badRequest().body("Invalid credentials");
         }
     }
+
+    private ResponseEntity<?> tooManyRequests(PasswordHashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body("Too many authentication requests, please retry later");
+    }
 }
 
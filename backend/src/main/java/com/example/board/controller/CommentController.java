@@ -1,21 +1,39 @@
 package com.example.board.controller;
 
+import com.example.board.cache.CacheInvalidator;
+import com.example.board.cache.CacheNames;
+import com.example.board.dto.CommentList;
+import com.example.board.dto.CommentListVersion;
 import com.example.board.dto.CommentRequest;
 import com.example.board.dto.CommentResponse;
 import com.example.board.model.Comment;
-import com.example.board.model.Post;
-import com.example.board.model.User;
+import com.example.board.notify.PgNotificationBus;
 import com.example.board.repository.CommentRepository;
 import com.example.board.repository.PostRepository;
-import com.example.board.repository.UserRepository;
+import com.example.board.security.CurrentUserResolver;
+import com.example.board.service.CommentEventService;
+import com.example.board.service.CommentQueryService;
+import com.example.board.service.CommentStreamService;
+import com.example.board.service.CommentThreadService;
+import com.example.board.service.PostQueryService;
+import com.example.board.trending.TrendingService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/posts/{postId}/comments")
@@ -23,17 +41,105 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class CommentController {
 
+    // Bounds on what one thread request may load; the rest is paged through /replies
+    private static final int MAX_THREADS_PER_PAGE = 100;
+    private static final int MAX_REPLIES_PER_THREAD = 20;
+    private static final int MAX_REPLIES_PER_PAGE = 200;
+
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
-    private final UserRepository userRepository;
+    private final CommentThreadService commentThreadService;
+    private final CommentQueryService commentQueryService;
+    private final CacheInvalidator cacheInvalidator;
+    private final PgNotificationBus notificationBus;
+    private final CurrentUserResolver currentUserResolver;
+    private final CommentStreamService commentStreamService;
+    private final TrendingService trendingService;
+    private final CommentEventService commentEventService;
+    private final PostQueryService postQueryService;
+
+    @Value("${board.comments.stream-threshold:1000}")
+    private long streamThreshold;
 
     @GetMapping
-    public ResponseEntity<List<CommentResponse>> getCommentsByPostId(@PathVariable Long postId) {
-        List<Comment> comments = commentRepository.findByPostIdOrderByCreatedAtAsc(postId);
-        List<CommentResponse> response = comments.stream()
-                .map(CommentResponse::from)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<List<CommentResponse>> getCommentsByPostId(@PathVariable Long postId,
+                                                                     ServletWebRequest webRequest) throws IOException {
+        Optional<CommentListVersion> version = commentQueryService.getCommentsVersion(postId);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (HttpValidators.notModified(webRequest, HttpValidators.REVALIDATE, commentsETag(postId, version.get()))) {
+            return null;
+        }
+        // Long threads are written in keyset pages as they are read rather than materialized and cached.
+        // This stays on the request thread, so long streams don't queue on the small MVC async pool.
+        CommentList comments = version.get().count() > streamThreshold ? null : commentQueryService.getComments(postId);
+        if (comments == null) {
+            HttpServletResponse response = webRequest.getResponse();
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            commentStreamService.writeComments(postId, response.getOutputStream());
+            return null;
+        }
+        // The list may have been read at a later version than the one checked above
+        return ResponseEntity.ok().eTag(commentsETag(postId, comments.version())).body(comments.comments());
+    }
+
+    @GetMapping("/threads")
+    public ResponseEntity<?> getThreads(
+            @PathVariable Long postId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "3") int replies
+    ) {
+        if (page < 0) {
+            return ResponseEntity.badRequest().body("Invalid page");
+        }
+        if (size < 1 || size > MAX_THREADS_PER_PAGE) {
+            return ResponseEntity.badRequest().body("Invalid size");
+        }
+        if (replies < 0 || replies > MAX_REPLIES_PER_THREAD) {
+            return ResponseEntity.badRequest().body("Invalid replies");
+        }
+        if (commentQueryService.getCommentsVersion(postId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(commentThreadService.getThreads(postId, PageRequest.of(page, size), replies));
+    }
+
+    @GetMapping("/{commentId}/replies")
+    public ResponseEntity<?> getReplies(
+            @PathVariable Long postId,
+            @PathVariable Long commentId,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        if (offset < 0) {
+            return ResponseEntity.badRequest().body("Invalid offset");
+        }
+        if (size < 1 || size > MAX_REPLIES_PER_PAGE) {
+            return ResponseEntity.badRequest().body("Invalid size");
+        }
+        if (commentQueryService.getCommentsVersion(postId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(commentThreadService.getReplies(postId, commentId, offset, size));
+    }
+
+    // Server-Sent Events for comments created or deleted after subscribing. EventSource resends
+    // Last-Event-ID on reconnect; a "reset" event means events were missed and the list is stale.
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(
+            @PathVariable Long postId,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        if (postQueryService.getPostVersion(postId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = commentEventService.subscribe(postId, lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.status(503).build();
+        }
+        return ResponseEntity.ok(emitter);
     }
 
     @PostMapping
@@ -46,27 +152,35 @@ public class CommentController {
             return ResponseEntity.status(401).body("Not authenticated");
         }
         
-        String username = authentication.getName();
-        User author = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-
-        Comment comment = Comment.builder()
-                .content(request.getContent())
-                .author(author)
-                .post(post)
-                .build();
-
-        if (request.getParentId() != null) {
-            Comment parent = commentRepository.findById(request.getParentId())
-                    .orElseThrow(() -> new RuntimeException("Parent comment not found"));
-            comment.setParent(parent);
+        Long authorId = currentUserResolver.userId(authentication).orElse(null);
+        if (authorId == null) {
+            return ResponseEntity.status(401).body("User not found");
         }
 
-        Comment savedComment = commentRepository.save(comment);
-        return ResponseEntity.ok(CommentResponse.from(savedComment));
+        Optional<Comment> savedComment;
+        try {
+            savedComment = commentRepository.insert(postId, request.getParentId(), authorId, request.getContent(),
+                    LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            // The parent was deleted while the reply was inserted
+            return ResponseEntity.status(404).body("Parent comment not found");
+        }
+        if (savedComment.isEmpty()) {
+            // Only the failure path pays for telling a missing post from a parent on another post
+            return postRepository.findAuthorIdById(postId).isPresent()
+                    ? ResponseEntity.status(404).body("Parent comment not found")
+                    : ResponseEntity.status(404).body("Post not found");
+        }
+        CommentResponse response = CommentResponse.from(savedComment.get(), authentication.getName());
+        trendingService.recordComment(postId);
+        notificationBus.publishTogether(() -> {
+            cacheInvalidator.evict(CacheNames.COMMENTS, postId);
+            cacheInvalidator.evict(CacheNames.POST_DETAIL, postId);
+            // Pages show each post's comment count
+            cacheInvalidator.clear(CacheNames.POST_PAGES);
+            commentEventService.publishCreated(response);
+        });
+        return ResponseEntity.ok(response);
     }
 
     @DeleteMapping("/{commentId}")
@@ -79,18 +193,36 @@ public class CommentController {
             return ResponseEntity.status(401).body("Not authenticated");
         }
         
-        String username = authentication.getName();
-        
-        return commentRepository.findById(commentId)
-                .map(comment -> {
-                    if (!comment.getAuthor().getUsername().equals(username)) {
-                        return ResponseEntity.status(403).body("Forbidden");
-                    }
-                    
-                    commentRepository.delete(comment);
-                    return ResponseEntity.ok().build();
-                })
-                .orElse(ResponseEntity.notFound().build());
+        Long userId = currentUserResolver.userId(authentication).orElse(null);
+        if (userId == null) {
+            return ResponseEntity.status(401).body("User not found");
+        }
+
+        int deleted;
+        try {
+            deleted = commentRepository.deleteByIdAndPostIdAndAuthorId(commentId, postId, userId);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(409).body("Comment has replies");
+        }
+        if (deleted == 0) {
+            // Only the failure path pays for telling a missing comment from someone else's
+            return commentRepository.findAuthorIdByIdAndPostId(commentId, postId).isPresent()
+                    ? ResponseEntity.status(403).body("Forbidden")
+                    : ResponseEntity.notFound().build();
+        }
+
+        notificationBus.publishTogether(() -> {
+            cacheInvalidator.evict(CacheNames.COMMENTS, postId);
+            cacheInvalidator.evict(CacheNames.POST_DETAIL, postId);
+            // Pages show each post's comment count
+            cacheInvalidator.clear(CacheNames.POST_PAGES);
+            commentEventService.publishDeleted(postId, commentId);
+        });
+        return ResponseEntity.ok().build();
     }
-}
 
+    // The version alone names the list; the count only picks between listing and streaming
+    private static String commentsETag(Long postId, CommentListVersion version) {
+        return HttpValidators.strongETag(postId + "-" + version.version());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.board.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Conditional GET support for the read endpoints. Validators are written on every response,
+// and notModified() answers 304 when the client's copy is still current.
+final class HttpValidators {
+
+    // Every use revalidates, so edits are never served stale. View counts can be; see weakETag.
+    static final CacheControl REVALIDATE = CacheControl.noCache();
+
+    private HttpValidators() {
+    }
+
+    static boolean notModified(ServletWebRequest request, CacheControl cacheControl, String etag) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        return request.checkNotModified(etag);
+    }
+
+    static String strongETag(String version) {
+        return "\"" + version + "\"";
+    }
+
+    // For bodies that also carry view counts. Those are left out of the validator on purpose:
+    // every view, the revalidation itself included, would change it, and pending views differ
+    // between replicas. A 304 can therefore keep a view count that is behind.
+    static String weakETag(String version) {
+        return "W/" + strongETag(version);
+    }
+
+    static String digest(String content) {
+        return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,20 +1,43 @@
 package com.example.board.controller;
 
+import com.example.board.cache.CacheInvalidator;
+import com.example.board.cache.CacheNames;
+import com.example.board.dto.CursorPage;
+import com.example.board.dto.PostCursor;
 import com.example.board.dto.PostRequest;
 import com.example.board.dto.PostResponse;
+import com.example.board.dto.PostSummaryResponse;
+import com.example.board.dto.PostVersion;
 import com.example.board.model.Post;
-import com.example.board.model.User;
+import com.example.board.notify.PgNotificationBus;
 import com.example.board.repository.PostRepository;
-import com.example.board.repository.UserRepository;
+import com.example.board.search.PostSearchService;
+import com.example.board.search.SearchTokenizer;
+import com.example.board.security.CurrentUserResolver;
+import com.example.board.service.DeletionService;
+import com.example.board.service.PostQueryService;
+import com.example.board.service.ViewCountService;
+import com.example.board.trending.TrendingService;
+import jakarta.annotation.PostConstruct;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -23,34 +46,134 @@ import org.springframework.web.bind.annotation.*;
 public class PostController {
 
     private final PostRepository postRepository;
-    private final UserRepository userRepository;
+    private final ViewCountService viewCountService;
+    private final PostSearchService postSearchService;
+    private final PostQueryService postQueryService;
+    private final CacheInvalidator cacheInvalidator;
+    private final PgNotificationBus notificationBus;
+    private final CurrentUserResolver currentUserResolver;
+    private final TrendingService trendingService;
+    private final DeletionService deletionService;
+
+    @Value("${board.http.list-max-age:5s}")
+    private Duration listMaxAge;
 
+    private CacheControl listCacheControl;
+
+    @PostConstruct
+    public void init() {
+        listCacheControl = CacheControl.maxAge(listMaxAge).mustRevalidate();
+    }
+
+    // sort=comments lists the most-commented posts first; search results are always ranked
     @GetMapping
-    public ResponseEntity<Page<PostResponse>> getAllPosts(
+    public ResponseEntity<?> getAllPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false) String search
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "latest") String sort,
+            ServletWebRequest webRequest
     ) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Post> posts;
+        PostQueryService.Order order;
+        try {
+            order = PostQueryService.Order.valueOf(sort.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid sort");
+        }
+
+        Page<PostSummaryResponse> response;
         
         if (search != null && !search.isEmpty()) {
-            posts = postRepository.searchByKeyword(search, pageable);
+            if (order != PostQueryService.Order.LATEST) {
+                return ResponseEntity.badRequest().body("Search results cannot be sorted");
+            }
+            Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+            response = postSearchService.search(search, pageable);
         } else {
-            posts = postRepository.findAll(pageable);
+            response = postQueryService.getPostPage(order, page, size);
         }
         
-        Page<PostResponse> response = posts.map(PostResponse::from);
+        // The page itself is usually cached; a match still saves serializing and sending it
+        StringBuilder version = new StringBuilder().append(response.getTotalElements());
+        response.forEach(post -> version.append(',').append(post.getId())
+                .append(':').append(HttpValidators.epochMillis(post.getUpdatedAt()))
+                .append(':').append(post.getCommentCount()));
+        if (HttpValidators.notModified(webRequest, listCacheControl,
+                HttpValidators.weakETag(HttpValidators.digest(version.toString())))) {
+            return null;
+        }
         return ResponseEntity.ok(response);
     }
 
+    // Keyset pagination: pass an empty cursor for the first page, then the returned nextCursor
+    @GetMapping(params = "cursor")
+    public ResponseEntity<?> getPostsByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String search
+    ) {
+        if (size < 1) {
+            return ResponseEntity.badRequest().body("Invalid size");
+        }
+
+        PostCursor after;
+        try {
+            after = cursor.isEmpty() ? null : PostCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid cursor");
+        }
+
+        // Fetch one extra row to find out whether another page exists
+        Limit limit = Limit.of(size + 1);
+        List<PostSummaryResponse> posts;
+        if (search != null && !search.isEmpty()) {
+            posts = postSearchService.searchLatest(search, after, size + 1);
+        } else if (after == null) {
+            posts = postRepository.findLatestSummaries(limit);
+        } else {
+            posts = postRepository.findLatestSummariesBefore(after.createdAt(), after.id(), limit);
+        }
+
+        boolean hasNext = posts.size() > size;
+        List<PostSummaryResponse> content = hasNext ? posts.subList(0, size) : posts;
+        String nextCursor = null;
+        if (hasNext) {
+            PostSummaryResponse last = content.get(content.size() - 1);
+            nextCursor = new PostCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return ResponseEntity.ok(new CursorPage<>(content, nextCursor, hasNext));
+    }
+
+    // Ranked by views and comments that decay with board.trending.half-life
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrendingPosts(@RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > trendingService.getMaxK()) {
+            return ResponseEntity.badRequest().body("Invalid limit");
+        }
+        return ResponseEntity.ok(trendingService.getTrendingPosts(limit));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<PostResponse> getPostById(@PathVariable Long id) {
-        return postRepository.findById(id)
+    public ResponseEntity<PostResponse> getPostById(@PathVariable Long id, ServletWebRequest webRequest) {
+        Optional<PostVersion> version = postQueryService.getPostVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // No Last-Modified: a new comment changes the body but not updatedAt, so only the ETag can
+        // tell. The view count is not part of it (see HttpValidators.weakETag), though a
+        // revalidation is still a view.
+        if (HttpValidators.notModified(webRequest, HttpValidators.REVALIDATE,
+                HttpValidators.weakETag(id + "-" + HttpValidators.epochMillis(version.get().updatedAt())
+                        + "-" + version.get().commentCount()))) {
+            recordView(id);
+            return null;
+        }
+
+        return postQueryService.getPost(id)
                 .map(post -> {
-                    post.setViewCount(post.getViewCount() + 1);
-                    postRepository.save(post);
-                    return ResponseEntity.ok(PostResponse.from(post));
+                    recordView(id);
+                    return ResponseEntity.ok(post.withViewCount(post.getViewCount() + viewCountService.pendingCount(id)));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -61,19 +184,20 @@ public class PostController {
             return ResponseEntity.status(401).body("Not authenticated");
         }
         
-        String username = authentication.getName();
-        User author = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Post post = Post.builder()
-                .title(request.getTitle())
-                .content(request.getContent())
-                .author(author)
-                .viewCount(0L)
-                .build();
-
-        Post savedPost = postRepository.save(post);
-        return ResponseEntity.ok(PostResponse.from(savedPost));
+        Long authorId = currentUserResolver.userId(authentication).orElse(null);
+        if (authorId == null) {
+            return ResponseEntity.status(401).body("User not found");
+        }
+
+        Post savedPost = postRepository.insert(authorId, request.getTitle(), request.getContent(),
+                SearchTokenizer.documentTerms(request.getTitle()),
+                SearchTokenizer.documentTerms(request.getContent()),
+                LocalDateTime.now());
+        notificationBus.publishTogether(() -> {
+            cacheInvalidator.clear(CacheNames.POST_PAGES);
+            cacheInvalidator.clear(CacheNames.POST_COUNTS);
+        });
+        return ResponseEntity.ok(PostResponse.from(savedPost, authentication.getName()));
     }
 
     @PutMapping("/{id}")
@@ -82,20 +206,25 @@ public class PostController {
             return ResponseEntity.status(401).body("Not authenticated");
         }
         
-        String username = authentication.getName();
-        
-        return postRepository.findById(id)
-                .map(post -> {
-                    if (!post.getAuthor().getUsername().equals(username)) {
-                        return ResponseEntity.status(403).body("Forbidden");
-                    }
-                    
-                    post.setTitle(request.getTitle());
-                    post.setContent(request.getContent());
-                    Post updatedPost = postRepository.save(post);
-                    return ResponseEntity.ok(PostResponse.from(updatedPost));
+        Long authorId = currentUserResolver.userId(authentication).orElse(null);
+        if (authorId == null) {
+            return ResponseEntity.status(401).body("User not found");
+        }
+
+        return postRepository.updateByIdAndAuthorId(id, authorId, request.getTitle(), request.getContent(),
+                        SearchTokenizer.documentTerms(request.getTitle()),
+                        SearchTokenizer.documentTerms(request.getContent()),
+                        LocalDateTime.now())
+                .<ResponseEntity<?>>map(updatedPost -> {
+                    notificationBus.publishTogether(() -> {
+                        cacheInvalidator.evict(CacheNames.POST_DETAIL, id);
+                        cacheInvalidator.clear(CacheNames.POST_PAGES);
+                        // Search totals depend on the text
+                        cacheInvalidator.clear(CacheNames.POST_COUNTS);
+                    });
+                    return ResponseEntity.ok(PostResponse.from(updatedPost, authentication.getName()));
                 })
-                .orElse(ResponseEntity.notFound().build());
+                .orElseGet(() -> notUpdated(id));
     }
 
     @DeleteMapping("/{id}")
@@ -104,18 +233,35 @@ public class PostController {
             return ResponseEntity.status(401).body("Not authenticated");
         }
         
-        String username = authentication.getName();
-        
-        return postRepository.findById(id)
-                .map(post -> {
-                    if (!post.getAuthor().getUsername().equals(username)) {
-                        return ResponseEntity.status(403).body("Forbidden");
-                    }
-                    
-                    postRepository.delete(post);
-                    return ResponseEntity.ok().build();
-                })
-                .orElse(ResponseEntity.notFound().build());
+        Long authorId = currentUserResolver.userId(authentication).orElse(null);
+        if (authorId == null) {
+            return ResponseEntity.status(401).body("User not found");
+        }
+
+        // Hidden from reads at once; the comments and the row are purged in the background
+        if (postRepository.tombstoneByIdAndAuthorId(id, authorId, LocalDateTime.now()) == 0) {
+            return notUpdated(id);
+        }
+        deletionService.purgeSoon();
+
+        notificationBus.publishTogether(() -> {
+            cacheInvalidator.evict(CacheNames.POST_DETAIL, id);
+            cacheInvalidator.evict(CacheNames.COMMENTS, id);
+            cacheInvalidator.clear(CacheNames.POST_PAGES);
+            cacheInvalidator.clear(CacheNames.POST_COUNTS);
+        });
+        return ResponseEntity.ok().build();
+    }
+
+    private void recordView(Long id) {
+        viewCountService.increment(id);
+        trendingService.recordView(id);
     }
-}
 
+    // Conditional writes match nothing for both a missing post and someone else's; tell them apart only here
+    private ResponseEntity<?> notUpdated(Long id) {
+        return postRepository.findAuthorIdById(id).isPresent()
+                ? ResponseEntity.status(403).body("Forbidden")
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.board.controller;
 
+import com.example.board.dto.RoleUpdateRequest;
+import com.example.board.dto.UserResponse;
 import com.example.board.model.User;
 import com.example.board.repository.UserRepository;
+import com.example.board.security.TokenRevocationService;
+import com.example.board.service.DeletionService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,11 +23,13 @@ import java.util.List;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final DeletionService deletionService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userRepository.findAll());
+    public ResponseEntity<List<UserResponse>> getAllUsers() {
+        return ResponseEntity.ok(userRepository.findAll().stream().map(UserResponse::from).toList());
     }
 
     @GetMapping("/me")
@@ -34,23 +42,39 @@ public class UserController {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok(UserResponse.from(user));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
         return userRepository.findById(id)
-                .map(ResponseEntity::ok)
+                .map(user -> ResponseEntity.ok(UserResponse.from(user)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping("/{id}/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> updateRole(@PathVariable Long id, @Valid @RequestBody RoleUpdateRequest request) {
+        return userRepository.findById(id)
+                .map(user -> {
+                    user.setRole(request.getRole());
+                    user.setTokenVersion(user.getTokenVersion() + 1);
+                    User updatedUser = userRepository.save(user);
+                    tokenRevocationService.revoke(id, updatedUser.getTokenVersion());
+                    return ResponseEntity.ok(UserResponse.from(updatedUser));
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
-        if (!userRepository.existsById(id)) {
+        // Their posts and comments, replies included, are purged in the background
+        if (userRepository.tombstoneById(id, LocalDateTime.now()) == 0) {
             return ResponseEntity.notFound().build();
         }
-        userRepository.deleteById(id);
+        tokenRevocationService.revoke(id, TokenRevocationService.ALL_TOKENS);
+        deletionService.purgeSoon();
         return ResponseEntity.ok().build();
     }
 }
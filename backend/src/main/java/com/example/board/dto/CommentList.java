@@ -0,0 +1,8 @@
+package com.example.board.dto;
+
+import java.util.List;
+
+// A post's comments together with the version they were read at, so a cached list is always
+// served with its own validator
+public record CommentList(CommentListVersion version, List<CommentResponse> comments) {
+}
@@ -0,0 +1,6 @@
+package com.example.board.dto;
+
+// A post's comment_count, which decides between listing and streaming, and its comments_version,
+// which every comment insert and delete moves and which alone names the list
+public record CommentListVersion(long count, long version) {
+}
@@ -0,0 +1,20 @@
+package com.example.board.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CommentNode {
+    private Long id;
+    private String content;
+    private String authorUsername;
+    private Long postId;
+    private Long parentId;
+    private LocalDateTime createdAt;
+    // Total number of replies below a thread root, including ones not loaded yet
+    private Long replyCount;
+    private List<CommentNode> replies = new ArrayList<>();
+}
@@ -15,10 +15,15 @@ public class CommentResponse {
     private LocalDateTime createdAt;
     
     public static CommentResponse from(Comment comment) {
+        return from(comment, comment.getAuthor().getUsername());
+    }
+    
+    // For write paths that hold only references; reading their ids does not initialize them
+    public static CommentResponse from(Comment comment, String authorUsername) {
         CommentResponse response = new CommentResponse();
         response.setId(comment.getId());
         response.setContent(comment.getContent());
-        response.setAuthorUsername(comment.getAuthor().getUsername());
+        response.setAuthorUsername(authorUsername);
         response.setPostId(comment.getPost().getId());
         response.setParentId(comment.getParent() != null ? comment.getParent().getId() : null);
         response.setCreatedAt(comment.getCreatedAt());
@@ -12,19 +12,39 @@ public class PostResponse {
     private String content;
     private String authorUsername;
     private Long viewCount;
+    private Long commentCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
     public static PostResponse from(Post post) {
+        return from(post, post.getAuthor().getUsername());
+    }
+    
+    // For write paths that hold only a reference to the author
+    public static PostResponse from(Post post, String authorUsername) {
         PostResponse response = new PostResponse();
         response.setId(post.getId());
         response.setTitle(post.getTitle());
         response.setContent(post.getContent());
-        response.setAuthorUsername(post.getAuthor().getUsername());
+        response.setAuthorUsername(authorUsername);
         response.setViewCount(post.getViewCount());
+        response.setCommentCount(post.getCommentCount());
         response.setCreatedAt(post.getCreatedAt());
         response.setUpdatedAt(post.getUpdatedAt());
         return response;
     }
+    
+    public PostResponse withViewCount(Long viewCount) {
+        PostResponse copy = new PostResponse();
+        copy.setId(id);
+        copy.setTitle(title);
+        copy.setContent(content);
+        copy.setAuthorUsername(authorUsername);
+        copy.setViewCount(viewCount);
+        copy.setCommentCount(commentCount);
+        copy.setCreatedAt(createdAt);
+        copy.setUpdatedAt(updatedAt);
+        return copy;
+    }
 }
 
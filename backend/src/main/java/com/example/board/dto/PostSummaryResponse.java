@@ -0,0 +1,24 @@
+package com.example.board.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// List row for the post index; built by a JPQL constructor expression, never from a Post entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSummaryResponse {
+    public static final int EXCERPT_LENGTH = 200;
+
+    private Long id;
+    private String title;
+    private String authorUsername;
+    private Long viewCount;
+    private Long commentCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String excerpt;
+}
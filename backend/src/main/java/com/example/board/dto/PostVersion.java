@@ -0,0 +1,7 @@
+package com.example.board.dto;
+
+import java.time.LocalDateTime;
+
+// What a post's detail validator is built from: edits move updatedAt, comments change commentCount
+public record PostVersion(LocalDateTime updatedAt, long commentCount) {
+}
@@ -0,0 +1,11 @@
+package com.example.board.dto;
+
+import com.example.board.model.User;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class RoleUpdateRequest {
+    @NotNull
+    private User.Role role;
+}
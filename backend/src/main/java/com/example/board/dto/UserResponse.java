@@ -0,0 +1,26 @@
+package com.example.board.dto;
+
+import com.example.board.model.User;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// What the API shows of a user; the password hash and token version stay on the entity
+@Data
+public class UserResponse {
+    private Long id;
+    private String username;
+    private String email;
+    private String role;
+    private LocalDateTime createdAt;
+
+    public static UserResponse from(User user) {
+        UserResponse response = new UserResponse();
+        response.setId(user.getId());
+        response.setUsername(user.getUsername());
+        response.setEmail(user.getEmail());
+        response.setRole(user.getRole().name());
+        response.setCreatedAt(user.getCreatedAt());
+        return response;
+    }
+}
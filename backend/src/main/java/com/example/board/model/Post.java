@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -13,6 +14,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "posts")
+// Tombstoned posts (deleted_at set, see DeletionService) are invisible to every entity query
+@SQLRestriction("deleted_at IS NULL")
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,7 +24,9 @@ import java.time.LocalDateTime;
 public class Post {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids (see V2__pooled_id_sequences.sql) keep inserts batchable, unlike IDENTITY
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_id_seq")
+    @SequenceGenerator(name = "posts_id_seq", sequenceName = "posts_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 200)
@@ -34,10 +39,21 @@ public class Post {
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
     
-    @Column(nullable = false)
+    // Maintained by ViewCountService with atomic increments, never written back by JPA
+    @Column(nullable = false, updatable = false)
     @Builder.Default
     private Long viewCount = 0L;
     
+    // Maintained by comment writes with atomic updates and repaired by CommentCountReconciler
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private Long commentCount = 0L;
+    
+    // Moved by the same statements, see CommentListVersion
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private Long commentsVersion = 0L;
+    
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
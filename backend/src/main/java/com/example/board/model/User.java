@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -12,6 +13,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+// Tombstoned users (deleted_at set, see DeletionService) are invisible to every entity query, like posts
+@SQLRestriction("deleted_at IS NULL")
 @Data
 @Builder
 @NoArgsConstructor
@@ -20,7 +23,8 @@ import java.time.LocalDateTime;
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, unique = true, length = 50)
@@ -37,10 +41,19 @@ public class User {
     @Builder.Default
     private Role role = Role.USER;
     
+    // Embedded in issued tokens; bumped to invalidate them when the role changes
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer tokenVersion = 0;
+    
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    // Set by UserRepository.tombstoneById until DeletionService purges the row; never written by JPA
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+    
     public enum Role {
         USER, ADMIN
     }
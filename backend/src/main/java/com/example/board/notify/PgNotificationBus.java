@@ -0,0 +1,169 @@
+package com.example.board.notify;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Cross-replica messaging over Postgres LISTEN/NOTIFY. The listener holds its own connection
+// outside the Hikari pool so it never takes a connection away from requests.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PgNotificationBus {
+
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    // Identifies this replica so subscribers can skip their own messages
+    public static final String NODE_ID = UUID.randomUUID().toString();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+
+    // Notifications held back by publishTogether on this thread
+    private static final ThreadLocal<List<String>> DEFERRED = new ThreadLocal<>();
+
+    private final Map<String, List<Consumer<String>>> subscribers = new ConcurrentHashMap<>();
+    private final List<Runnable> reconnectListeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public void subscribe(String channel, Consumer<String> handler) {
+        subscribers.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    // Called after the listener reconnects, since notifications sent in the meantime are lost
+    public void onReconnect(Runnable listener) {
+        reconnectListeners.add(listener);
+    }
+
+    public void publish(String channel, String payload) {
+        List<String> deferred = DEFERRED.get();
+        if (deferred != null) {
+            deferred.add(channel);
+            deferred.add(payload);
+            return;
+        }
+        send(List.of(channel, payload));
+    }
+
+    // Runs the action and sends what it published on this thread in one statement once it returns,
+    // so a write's cache evictions and events cost one round trip between them
+    public void publishTogether(Runnable action) {
+        if (DEFERRED.get() != null) {
+            action.run();
+            return;
+        }
+        List<String> deferred = new ArrayList<>();
+        DEFERRED.set(deferred);
+        try {
+            action.run();
+        } finally {
+            DEFERRED.remove();
+            if (!deferred.isEmpty()) {
+                send(deferred);
+            }
+        }
+    }
+
+    // Alternating channels and payloads
+    private void send(List<String> notifications) {
+        String sql = "SELECT " + String.join(", ", Collections.nCopies(notifications.size() / 2, "pg_notify(?, ?)"));
+        try {
+            jdbcTemplate.query(sql, rs -> null, notifications.toArray());
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish {} notification(s) on {}", notifications.size() / 2, notifications.get(0), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "pg-notification-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                Set<String> listening = new HashSet<>();
+                if (reconnect) {
+                    reconnectListeners.forEach(Runnable::run);
+                }
+                reconnect = true;
+                while (running) {
+                    for (String channel : subscribers.keySet()) {
+                        if (listening.add(channel)) {
+                            try (Statement statement = connection.createStatement()) {
+                                statement.execute("LISTEN \"" + channel + "\"");
+                            }
+                        }
+                    }
+
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Notification listener lost its connection, reconnecting in {} ms", RECONNECT_DELAY_MS, e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(PGNotification notification) {
+        for (Consumer<String> handler : subscribers.getOrDefault(notification.getName(), List.of())) {
+            try {
+                handler.accept(notification.getParameter());
+            } catch (RuntimeException e) {
+                log.warn("Notification handler for {} failed", notification.getName(), e);
+            }
+        }
+    }
+}
@@ -1,21 +1,30 @@
 package com.example.board.repository;
 
+import com.example.board.dto.CommentListVersion;
 import com.example.board.model.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+// Reads default to read-only transactions, which go to a read replica when ReplicaConfig is enabled
 @Repository
+@Transactional(readOnly = true)
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     
+    // The limit lets the plan read idx_comments_post_id_created_at_id in order and stop, where a
+    // whole long thread would be bitmap-scanned and sorted; such threads go to CommentStreamService
     @EntityGraph(attributePaths = {"author"})
-    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId ORDER BY c.createdAt ASC")
-    List<Comment> findByPostIdOrderByCreatedAtAsc(@Param("postId") Long postId);
+    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findByPostIdOrderByCreatedAtAsc(@Param("postId") Long postId, Limit limit);
     
     @EntityGraph(attributePaths = {"author"})
     List<Comment> findByParentId(Long parentId);
@@ -23,5 +32,42 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Override
     @EntityGraph(attributePaths = {"author"})
     Optional<Comment> findById(Long id);
+    
+    // Empty for a missing or tombstoned post
+    @Query("SELECT new com.example.board.dto.CommentListVersion(p.commentCount, p.commentsVersion) " +
+           "FROM Post p WHERE p.id = :postId")
+    Optional<CommentListVersion> findVersionByPostId(@Param("postId") Long postId);
+    
+    @Query("SELECT c.author.id FROM Comment c WHERE c.id = :id AND c.post.id = :postId")
+    Optional<Long> findAuthorIdByIdAndPostId(@Param("id") Long id, @Param("postId") Long postId);
+    
+    // Checks the post and the parent, bumps the post's count and version and inserts, all in one statement, so
+    // CommentCountReconciler never sees the count without the comment. Empty when the post is missing
+    // or tombstoned or the parent is not on it. The id comes from the column default, like PostRepository.insert.
+    @Transactional
+    @Query(value = "WITH post AS (" +
+                   "UPDATE posts SET comment_count = comment_count + 1, comments_version = comments_version + 1 " +
+                   "WHERE id = :postId AND deleted_at IS NULL AND (CAST(:parentId AS BIGINT) IS NULL " +
+                   "OR EXISTS (SELECT 1 FROM comments WHERE id = :parentId AND post_id = :postId)) " +
+                   "RETURNING id) " +
+                   "INSERT INTO comments (content, author_id, post_id, parent_id, created_at) " +
+                   "SELECT :content, :authorId, id, CAST(:parentId AS BIGINT), :createdAt FROM post " +
+                   "RETURNING id, content, author_id, post_id, parent_id, created_at",
+           nativeQuery = true)
+    Optional<Comment> insert(@Param("postId") Long postId, @Param("parentId") Long parentId,
+                             @Param("authorId") Long authorId, @Param("content") String content,
+                             @Param("createdAt") LocalDateTime createdAt);
+    
+    // Deletes the comment and updates its post's count and version in one statement; 0 unless the caller wrote it
+    @Transactional
+    @Modifying
+    @Query(value = "WITH deleted AS (" +
+                   "DELETE FROM comments WHERE id = :id AND post_id = :postId AND author_id = :authorId " +
+                   "RETURNING post_id) " +
+                   "UPDATE posts SET comment_count = comment_count - 1, comments_version = comments_version + 1 " +
+                   "WHERE id IN (SELECT post_id FROM deleted)",
+           nativeQuery = true)
+    int deleteByIdAndPostIdAndAuthorId(@Param("id") Long id, @Param("postId") Long postId,
+                                       @Param("authorId") Long authorId);
 }
 
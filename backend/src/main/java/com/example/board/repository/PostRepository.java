@@ -1,17 +1,27 @@
 package com.example.board.repository;
 
+import com.example.board.dto.PostSummaryResponse;
+import com.example.board.dto.PostVersion;
 import com.example.board.model.Post;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+// Reads default to read-only transactions, which go to a read replica when ReplicaConfig is enabled
 @Repository
+@Transactional(readOnly = true)
 public interface PostRepository extends JpaRepository<Post, Long> {
     
     @EntityGraph(attributePaths = {"author"})
@@ -25,8 +35,74 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @EntityGraph(attributePaths = {"author"})
     Page<Post> findAll(Pageable pageable);
     
+    String SUMMARY_SELECT = "SELECT new com.example.board.dto.PostSummaryResponse(" +
+            "p.id, p.title, a.username, p.viewCount, p.commentCount, p.createdAt, p.updatedAt, " +
+            "SUBSTRING(p.content, 1, " + PostSummaryResponse.EXCERPT_LENGTH + ")) " +
+            "FROM Post p JOIN p.author a";
+    
+    // No count query; totals come from PostCountService
+    @Query(SUMMARY_SELECT)
+    List<PostSummaryResponse> findSummaries(Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + " ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryResponse> findLatestSummaries(Limit limit);
+    
+    @Query(SUMMARY_SELECT + " WHERE p.createdAt <= :createdAt " +
+           "AND (p.createdAt < :createdAt OR p.id < :id) ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryResponse> findLatestSummariesBefore(@Param("createdAt") LocalDateTime createdAt,
+                                                        @Param("id") Long id, Limit limit);
+    
+    @Query(SUMMARY_SELECT + " WHERE p.id IN :ids")
+    List<PostSummaryResponse> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
     @Override
     @EntityGraph(attributePaths = {"author"})
     Optional<Post> findById(Long id);
+    
+    @Query("SELECT new com.example.board.dto.PostVersion(p.updatedAt, p.commentCount) FROM Post p WHERE p.id = :id")
+    Optional<PostVersion> findVersionById(@Param("id") Long id);
+    
+    @Query("SELECT p.author.id FROM Post p WHERE p.id = :id")
+    Optional<Long> findAuthorIdById(@Param("id") Long id);
+    
+    // Insert and search indexing in one statement, with the same weighting as PostSearchService.
+    // The id comes from the column default, which spends a whole pooled block on the row.
+    @Transactional
+    @Query(value = "INSERT INTO posts (title, content, author_id, view_count, comment_count, comments_version, " +
+                   "created_at, updated_at, search_vector) VALUES (:title, :content, :authorId, 0, 0, 0, " +
+                   ":createdAt, :createdAt, setweight(to_tsvector('simple', :titleTerms), 'A') || " +
+                   "setweight(to_tsvector('simple', :contentTerms), 'B')) " +
+                   "RETURNING id, title, content, author_id, view_count, comment_count, comments_version, " +
+                   "created_at, updated_at",
+           nativeQuery = true)
+    Post insert(@Param("authorId") Long authorId, @Param("title") String title, @Param("content") String content,
+                @Param("titleTerms") String titleTerms, @Param("contentTerms") String contentTerms,
+                @Param("createdAt") LocalDateTime createdAt);
+    
+    // Authorization, update and search indexing in one statement; empty unless the caller wrote the post.
+    // The vector uses the same weighting as PostSearchService.
+    @Transactional
+    @Query(value = "UPDATE posts SET title = :title, content = :content, updated_at = :updatedAt, " +
+                   "search_vector = setweight(to_tsvector('simple', :titleTerms), 'A') || " +
+                   "setweight(to_tsvector('simple', :contentTerms), 'B') " +
+                   "WHERE id = :id AND author_id = :authorId AND deleted_at IS NULL " +
+                   "RETURNING id, title, content, author_id, view_count, comment_count, comments_version, " +
+                   "created_at, updated_at",
+           nativeQuery = true)
+    Optional<Post> updateByIdAndAuthorId(@Param("id") Long id, @Param("authorId") Long authorId,
+                                         @Param("title") String title, @Param("content") String content,
+                                         @Param("titleTerms") String titleTerms,
+                                         @Param("contentTerms") String contentTerms,
+                                         @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // Only tombstones the post, a single-row update however many comments it has;
+    // DeletionService removes the comments and the row in the background
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE posts SET deleted_at = :deletedAt " +
+                   "WHERE id = :id AND author_id = :authorId AND deleted_at IS NULL",
+           nativeQuery = true)
+    int tombstoneByIdAndAuthorId(@Param("id") Long id, @Param("authorId") Long authorId,
+                                 @Param("deletedAt") LocalDateTime deletedAt);
 }
 
@@ -0,0 +1,23 @@
+package com.example.board.repository;
+
+import com.example.board.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    
+    List<TokenRevocation> findByCreatedAtAfter(LocalDateTime createdAt);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.createdAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
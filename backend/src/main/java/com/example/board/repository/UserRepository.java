@@ -2,15 +2,34 @@ package com.example.board.repository;
 
 import com.example.board.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
+// User's @SQLRestriction hides tombstoned users from lookups; the exists checks are native so
+// a deleted user's username and email stay taken until DeletionService has purged the row
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
-    boolean existsByUsername(String username);
-    boolean existsByEmail(String email);
+    
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM users WHERE username = :username)", nativeQuery = true)
+    boolean existsByUsername(@Param("username") String username);
+    
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM users WHERE email = :email)", nativeQuery = true)
+    boolean existsByEmail(@Param("email") String email);
+    
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users SET deleted_at = :deletedAt WHERE id = :id AND deleted_at IS NULL",
+           nativeQuery = true)
+    int tombstoneById(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
 }
-
@@ -0,0 +1,135 @@
+package com.example.board.search;
+
+import com.example.board.dto.CountedPage;
+import com.example.board.dto.PostCursor;
+import com.example.board.dto.PostSummaryResponse;
+import com.example.board.repository.PostRepository;
+import com.example.board.service.PostCountService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostSearchService {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+    // Deliberate limit: only the newest matches are ranked, so an older post that matches better
+    // cannot outrank them once it falls outside the window
+    private static final int RANK_WINDOW = 1000;
+
+    private static final String VECTOR_EXPRESSION =
+            "setweight(to_tsvector('simple', ?), 'A') || setweight(to_tsvector('simple', ?), 'B')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostRepository postRepository;
+    private final PostCountService postCountService;
+
+    // The column and its index come from the V3 migration
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIndex() {
+        int indexed = backfill();
+        if (indexed > 0) {
+            log.info("Indexed {} posts for full-text search", indexed);
+        }
+    }
+
+    // Indexes every post that has no search vector yet (rows written outside PostController)
+    public int backfill() {
+        int total = 0;
+        long lastId = 0;
+        while (true) {
+            List<Object[]> batch = jdbcTemplate.query(
+                    "SELECT id, title, content FROM posts WHERE id > ? AND search_vector IS NULL ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Object[]{
+                            SearchTokenizer.documentTerms(rs.getString("title")),
+                            SearchTokenizer.documentTerms(rs.getString("content")),
+                            rs.getLong("id")
+                    },
+                    lastId, BACKFILL_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                return total;
+            }
+            jdbcTemplate.batchUpdate("UPDATE posts SET search_vector = " + VECTOR_EXPRESSION + " WHERE id = ?", batch);
+            lastId = (Long) batch.get(batch.size() - 1)[2];
+            total += batch.size();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Page<PostSummaryResponse> search(String keyword, Pageable pageable) {
+        String query = SearchTokenizer.toTsQuery(keyword);
+        if (query == null) {
+            return Page.empty(pageable);
+        }
+
+        // Ranking has to detoast every candidate vector, so only the newest matches are ranked
+        long window = Math.max(RANK_WINDOW, pageable.getOffset() + pageable.getPageSize());
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT c.id FROM (" +
+                "  SELECT p.id, p.created_at, p.search_vector FROM posts p " +
+                "  WHERE p.search_vector @@ to_tsquery('simple', ?) AND p.deleted_at IS NULL " +
+                "  ORDER BY p.created_at DESC LIMIT ?" +
+                ") c " +
+                "ORDER BY ts_rank_cd(c.search_vector, to_tsquery('simple', ?)) DESC, c.created_at DESC, c.id DESC " +
+                "LIMIT ? OFFSET ?",
+                Long.class, query, window, query, pageable.getPageSize(), pageable.getOffset());
+
+        PostCountService.Total total;
+        if (pageable.getOffset() == 0 && ids.size() < pageable.getPageSize()) {
+            total = new PostCountService.Total(ids.size(), true);
+        } else {
+            total = postCountService.countMatches(query);
+        }
+
+        return new CountedPage<>(loadInOrder(ids), pageable, total.value(), total.exact());
+    }
+
+    // Matches in (createdAt DESC, id DESC) order after the given cursor, without ranking or counting
+    @Transactional(readOnly = true)
+    public List<PostSummaryResponse> searchLatest(String keyword, PostCursor after, int limit) {
+        String query = SearchTokenizer.toTsQuery(keyword);
+        if (query == null) {
+            return List.of();
+        }
+
+        List<Long> ids;
+        if (after == null) {
+            ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM posts WHERE search_vector @@ to_tsquery('simple', ?) AND deleted_at IS NULL " +
+                    "ORDER BY created_at DESC, id DESC LIMIT ?",
+                    Long.class, query, limit);
+        } else {
+            ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM posts WHERE search_vector @@ to_tsquery('simple', ?) AND deleted_at IS NULL " +
+                    "AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC LIMIT ?",
+                    Long.class, query, Timestamp.valueOf(after.createdAt()), after.id(), limit);
+        }
+        return loadInOrder(ids);
+    }
+
+    private List<PostSummaryResponse> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PostSummaryResponse> byId = postRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostSummaryResponse::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(post -> post != null)
+                .collect(Collectors.toList());
+    }
+}
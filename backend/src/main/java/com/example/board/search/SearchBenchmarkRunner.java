@@ -0,0 +1,140 @@
+package com.example.board.search;
+
+import com.example.board.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+// Compares the legacy LIKE search with the full-text index on a synthetic corpus.
+// Run with: SPRING_PROFILES_ACTIVE=search-benchmark ./gradlew bootRun
+@Slf4j
+@Component
+@Profile("search-benchmark")
+@Order(100)
+@RequiredArgsConstructor
+public class SearchBenchmarkRunner implements CommandLineRunner {
+
+    // Ordered from most to least frequent; words are drawn with a Zipf-like skew
+    private static final String[] WORDS = {
+            "개발", "서버", "the", "and", "게시판", "Spring", "데이터", "with", "사용", "방법",
+            "Docker", "설정", "for", "애플리케이션", "배포", "using", "React", "프론트엔드", "백엔드", "인증",
+            "JPA", "컨테이너", "how", "테스트", "운영", "build", "Kubernetes", "네트워크", "보안", "로그",
+            "PostgreSQL", "성능", "deploy", "클러스터", "JWT", "최적화", "scale", "모니터링", "캐시", "Redis",
+            "데이터베이스", "인덱스", "쿠버네티스", "트랜잭션", "Prometheus", "Grafana", "마이그레이션", "샤딩", "Kafka", "레플리카"
+    };
+
+    private static final String[] PARTICLES = {"를", "을", "은", "는", "이", "가", "에서", "으로", "의", "와"};
+
+    private static final String[] QUERIES = {"개발", "Kubernetes", "쿠버네티스", "데이터베이스 성능", "Spring JPA", "레플리카"};
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostRepository postRepository;
+    private final PostSearchService postSearchService;
+
+    @Value("${board.search-benchmark.posts:200000}")
+    private int postCount;
+
+    @Value("${board.search-benchmark.seed:42}")
+    private long seed;
+
+    @Override
+    public void run(String... args) {
+        postSearchService.initializeIndex();
+        generateCorpus();
+
+        long start = System.nanoTime();
+        int indexed = postSearchService.backfill();
+        log.info("Indexed {} posts in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+        jdbcTemplate.execute("ANALYZE posts");
+
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("createdAt").descending());
+        log.info(String.format("%-20s %12s %12s %10s %10s", "query", "like(ms)", "index(ms)", "like hits", "idx hits"));
+        for (String query : QUERIES) {
+            Measurement like = measure(() -> postRepository.searchByKeyword(query, pageable));
+            Measurement index = measure(() -> postSearchService.search(query, pageable));
+            log.info(String.format("%-20s %12.2f %12.2f %10d %10d",
+                    query, like.averageMillis(), index.averageMillis(), like.hits(), index.hits()));
+        }
+    }
+
+    private void generateCorpus() {
+        Long authorId = ensureAuthor();
+        Random random = new Random(seed);
+        LocalDateTime base = LocalDateTime.now().minusDays(365);
+        String sql = "INSERT INTO posts (title, content, author_id, view_count, created_at, updated_at) " +
+                "VALUES (?, ?, ?, 0, ?, ?)";
+
+        long start = System.nanoTime();
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < postCount; i++) {
+            Timestamp createdAt = Timestamp.valueOf(base.plusSeconds(random.nextInt(365 * 24 * 3600)));
+            batch.add(new Object[]{sentence(random, 4 + random.nextInt(6)), sentence(random, 40 + random.nextInt(160)),
+                    authorId, createdAt, createdAt});
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+        log.info("Inserted {} synthetic posts in {} ms", postCount, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Long ensureAuthor() {
+        jdbcTemplate.update("INSERT INTO users (username, email, password, role, created_at) " +
+                "VALUES ('search-bench', 'search-bench@example.com', '!', 'USER', now()) ON CONFLICT DO NOTHING");
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'search-bench'", Long.class);
+    }
+
+    private String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            String word = WORDS[(int) (WORDS.length * Math.pow(random.nextDouble(), 3))];
+            sb.append(word);
+            if (Character.UnicodeScript.of(word.codePointAt(0)) == Character.UnicodeScript.HANGUL
+                    && random.nextBoolean()) {
+                sb.append(PARTICLES[random.nextInt(PARTICLES.length)]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private Measurement measure(Supplier<Page<?>> search) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            search.get();
+        }
+        long hits = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            hits = search.get().getTotalElements();
+        }
+        return new Measurement((System.nanoTime() - start) / 1_000_000.0 / MEASURED_RUNS, hits);
+    }
+
+    private record Measurement(double averageMillis, long hits) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.board.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Splits text into search terms. Latin words and numbers become lowercase terms, while
+// Hangul/CJK runs become overlapping bigrams, because Korean attaches particles to words
+// ("Docker를") and Postgres has no Korean dictionary to strip them.
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    public static String documentTerms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (Run run : runs(text)) {
+            if (run.cjk() && run.text().codePointCount(0, run.text().length()) > 1) {
+                terms.addAll(bigrams(run.text()));
+            } else {
+                terms.add(run.text());
+            }
+        }
+        return String.join(" ", terms);
+    }
+
+    // Builds a to_tsquery expression that requires every term. Words and single CJK
+    // characters match as prefixes, CJK runs must contain every bigram.
+    public static String toTsQuery(String keyword) {
+        List<String> terms = new ArrayList<>();
+        for (Run run : runs(keyword)) {
+            if (run.cjk() && run.text().codePointCount(0, run.text().length()) > 1) {
+                terms.addAll(bigrams(run.text()));
+            } else {
+                terms.add(run.text() + ":*");
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" & ", terms);
+    }
+
+    private static List<Run> runs(String text) {
+        List<Run> runs = new ArrayList<>();
+        if (text == null) {
+            return runs;
+        }
+
+        StringBuilder current = new StringBuilder();
+        boolean currentCjk = false;
+        int i = 0;
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+
+            if (!Character.isLetterOrDigit(cp)) {
+                flush(runs, current, currentCjk);
+                continue;
+            }
+
+            boolean cjk = isCjk(cp);
+            if (current.length() > 0 && cjk != currentCjk) {
+                flush(runs, current, currentCjk);
+            }
+            currentCjk = cjk;
+            current.appendCodePoint(cp);
+        }
+        flush(runs, current, currentCjk);
+        return runs;
+    }
+
+    private static void flush(List<Run> runs, StringBuilder current, boolean cjk) {
+        if (current.length() > 0) {
+            runs.add(new Run(current.toString().toLowerCase(Locale.ROOT), cjk));
+            current.setLength(0);
+        }
+    }
+
+    private static List<String> bigrams(String run) {
+        int[] cps = run.codePoints().toArray();
+        List<String> bigrams = new ArrayList<>(cps.length - 1);
+        for (int i = 0; i + 1 < cps.length; i++) {
+            bigrams.add(new String(cps, i, 2));
+        }
+        return bigrams;
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HANGUL
+                || script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA;
+    }
+
+    private record Run(String text, boolean cjk) {
+    }
+}
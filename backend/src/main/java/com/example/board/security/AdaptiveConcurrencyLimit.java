@@ -0,0 +1,113 @@
+package com.example.board.security;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Concurrency limit that follows latency, in the style of TCP Vegas and Netflix's Gradient2.
+// Each window of samples compares the recent average round trip with a slowly moving long-term
+// baseline: once requests get slower than tolerance times the baseline they are queueing
+// somewhere, and the limit shrinks in proportion; otherwise it grows by about sqrt(limit) per
+// window. A window with a failed request (5xx, 429 or an exception) cuts the limit by a constant
+// factor instead, AIMD style. Acquiring never blocks; callers shed when it fails.
+final class AdaptiveConcurrencyLimit {
+
+    // Recent latency may exceed the baseline by this factor before the limit shrinks
+    private static final double TOLERANCE = 1.5;
+    // Weight of each window's new limit, so one noisy window cannot swing it
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final int WARMUP_WINDOWS = 10;
+    // The baseline averages roughly this many windows
+    private static final double BASELINE_ALPHA = 2.0 / (100 + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    // Window and baseline state, guarded by this
+    private long windowStart = System.nanoTime();
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowFailed;
+    private double baselineRtt;
+    private int windows;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long windowNanos) {
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowNanos;
+    }
+
+    // Returns the number of requests in flight including this one, or 0 when over the limit
+    int tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > (int) limit) {
+            inFlight.decrementAndGet();
+            return 0;
+        }
+        return current;
+    }
+
+    void release(long startNanos, int inFlightAtStart, boolean failed) {
+        long now = System.nanoTime();
+        inFlight.decrementAndGet();
+        record(now - startNanos, inFlightAtStart, failed, now);
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void record(long rttNanos, int inFlightAtStart, boolean failed, long now) {
+        if (failed) {
+            windowFailed = true;
+        } else {
+            windowRttSum += rttNanos;
+            windowSamples++;
+        }
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        if (now - windowStart < windowNanos || (windowSamples < MIN_WINDOW_SAMPLES && !windowFailed)) {
+            return;
+        }
+
+        if (windowFailed) {
+            limit = Math.max(minLimit, limit * BACKOFF);
+        } else {
+            update(windowRttSum / (double) windowSamples, windowMaxInFlight);
+        }
+        windowStart = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        windowFailed = false;
+    }
+
+    private void update(double shortRtt, int maxInFlight) {
+        windows++;
+        if (windows <= WARMUP_WINDOWS) {
+            baselineRtt += (shortRtt - baselineRtt) / windows;
+        } else {
+            baselineRtt += (shortRtt - baselineRtt) * BASELINE_ALPHA;
+        }
+        // Follow a drop in latency quickly instead of waiting out the average
+        if (baselineRtt > 2 * shortRtt) {
+            baselineRtt *= 0.95;
+        }
+        // Barely used, so the latency says nothing about whether a higher limit would hurt
+        if (maxInFlight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * baselineRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.board.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+// Admission control ahead of JwtAuthenticationFilter. Reads, writes and /api/auth/** each get an
+// adaptive concurrency limit, and a request over its class's limit is turned away at once, before
+// its token is even verified, instead of queueing behind Tomcat threads and the connection pool.
+// Actuator endpoints are never limited so health probes keep answering under overload, and
+// neither are comment event streams, which hold no thread once subscribed.
+@Component
+@RequiredArgsConstructor
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    enum RequestClass {
+        READ, WRITE, AUTH
+    }
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<RequestClass, AdaptiveConcurrencyLimit> limits = new EnumMap<>(RequestClass.class);
+    private final Map<RequestClass, Counter> rejected = new EnumMap<>(RequestClass.class);
+
+    @PostConstruct
+    public void init() {
+        long windowNanos = environment.getProperty("board.admission.window-ms", Long.class, 100L) * 1_000_000;
+        for (RequestClass requestClass : RequestClass.values()) {
+            String prefix = "board.admission." + requestClass.name().toLowerCase() + ".";
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                    environment.getProperty(prefix + "initial-limit", Integer.class, 20),
+                    environment.getProperty(prefix + "min-limit", Integer.class, 1),
+                    environment.getProperty(prefix + "max-limit", Integer.class, 100),
+                    windowNanos);
+            limits.put(requestClass, limit);
+            String tag = requestClass.name().toLowerCase();
+            Gauge.builder("board.admission.limit", limit, AdaptiveConcurrencyLimit::limit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("board.admission.inflight", limit, AdaptiveConcurrencyLimit::inFlight)
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            rejected.put(requestClass, meterRegistry.counter("board.admission.rejected", "class", tag));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path.startsWith("/actuator/") || path.endsWith("/comments/events");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestClass requestClass = classify(request);
+        AdaptiveConcurrencyLimit limit = limits.get(requestClass);
+        int inFlight = limit.tryAcquire();
+        if (inFlight == 0) {
+            rejected.get(requestClass).increment();
+            shed(requestClass, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            int status = response.getStatus();
+            failed = status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value();
+        } finally {
+            limit.release(start, inFlight, failed);
+        }
+    }
+
+    // Writes need a login anyway, so anonymous ones are turned away cheaply by authorization
+    private RequestClass classify(HttpServletRequest request) {
+        if (request.getRequestURI().startsWith("/api/auth/")) {
+            return RequestClass.AUTH;
+        }
+        return SAFE_METHODS.contains(request.getMethod()) ? RequestClass.READ : RequestClass.WRITE;
+    }
+
+    // Logins get 429 like a full password hashing queue; everything else is the server being busy
+    private void shed(RequestClass requestClass, HttpServletResponse response) throws IOException {
+        boolean auth = requestClass == RequestClass.AUTH;
+        response.setStatus(auth ? HttpStatus.TOO_MANY_REQUESTS.value() : HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(auth ? "Too many authentication requests, please retry later"
+                : "Server is busy, please retry later");
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.board.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+// Principal built from verified token claims, so authenticated requests need no user lookup
+public record AuthenticatedUser(Long id, String username, String role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.board.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+
+// The opportunistic rehash after a login encodes the password a second time, before
+// UserDetailsPasswordService.updatePassword is called. When the hashing queue is full that
+// encode is skipped instead of turning an already verified login into a 429; the upgrade
+// is retried on the user's next login.
+@Slf4j
+public class BestEffortRehashAuthenticationProvider extends DaoAuthenticationProvider {
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication, UserDetails user) {
+        try {
+            return super.createSuccessAuthentication(principal, authentication, user);
+        } catch (PasswordHashingRejectedException e) {
+            log.debug("Skipped password rehash for {}: hashing capacity exhausted", user.getUsername());
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    principal, authentication.getCredentials(), user.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+    }
+}
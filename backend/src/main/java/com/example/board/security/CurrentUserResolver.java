@@ -0,0 +1,23 @@
+package com.example.board.security;
+
+import com.example.board.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+// Write paths reference the caller by id; only legacy tokens without a uid claim need a lookup
+@Component
+@RequiredArgsConstructor
+public class CurrentUserResolver {
+
+    private final UserRepository userRepository;
+
+    public Optional<Long> userId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return Optional.of(user.id());
+        }
+        return userRepository.findIdByUsername(authentication.getName());
+    }
+}
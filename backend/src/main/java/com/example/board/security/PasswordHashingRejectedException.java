@@ -0,0 +1,25 @@
+package com.example.board.security;
+
+import lombok.Getter;
+
+// Thrown when the password hashing queue is full; surfaced as 429 with Retry-After
+@Getter
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(long retryAfterSeconds) {
+        super("Password hashing capacity exhausted");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    // DaoAuthenticationProvider may wrap it in an AuthenticationException
+    public static PasswordHashingRejectedException find(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof PasswordHashingRejectedException rejected) {
+                return rejected;
+            }
+        }
+        return null;
+    }
+}
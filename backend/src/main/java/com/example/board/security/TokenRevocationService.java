@@ -0,0 +1,87 @@
+package com.example.board.security;
+
+import com.example.board.model.TokenRevocation;
+import com.example.board.repository.TokenRevocationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps the minimum accepted token version per user in memory. Other replicas learn about
+// revocations by polling token_revocations, so request authentication never queries the DB.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    public static final int ALL_TOKENS = Integer.MAX_VALUE;
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    @Value("${jwt.expiration}")
+    private Long expiration;
+
+    private final Map<Long, Revocation> revocations = new ConcurrentHashMap<>();
+
+    // Re-read a little history on every poll so rows committed out of order are not missed
+    private static final long OVERLAP_SECONDS = 60;
+
+    private volatile LocalDateTime lastRefresh = LocalDateTime.MIN;
+
+    @PostConstruct
+    public void init() {
+        lastRefresh = LocalDateTime.now().minus(expiration, ChronoUnit.MILLIS);
+        refresh();
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        Revocation revocation = revocations.get(token.userId());
+        return revocation != null && token.version() < revocation.minTokenVersion();
+    }
+
+    public void revoke(Long userId, int minTokenVersion) {
+        TokenRevocation saved = tokenRevocationRepository.save(TokenRevocation.builder()
+                .userId(userId)
+                .minTokenVersion(minTokenVersion)
+                .build());
+        apply(saved);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation-refresh-ms:5000}", initialDelayString = "${jwt.revocation-refresh-ms:5000}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenRevocation> updates = tokenRevocationRepository.findByCreatedAtAfter(
+                lastRefresh.minusSeconds(OVERLAP_SECONDS));
+        updates.forEach(this::apply);
+        lastRefresh = now;
+
+        // Once every token issued before a revocation has expired, the revocation is moot
+        LocalDateTime cutoff = LocalDateTime.now().minus(expiration, ChronoUnit.MILLIS);
+        revocations.values().removeIf(revocation -> revocation.createdAt().isBefore(cutoff));
+    }
+
+    @Scheduled(cron = "${jwt.revocation-purge-cron:0 0 * * * *}")
+    public void purgeExpired() {
+        int purged = tokenRevocationRepository.deleteOlderThan(LocalDateTime.now().minus(expiration, ChronoUnit.MILLIS));
+        if (purged > 0) {
+            log.info("Purged {} expired token revocations", purged);
+        }
+    }
+
+    private void apply(TokenRevocation revocation) {
+        revocations.merge(revocation.getUserId(),
+                new Revocation(revocation.getMinTokenVersion(), revocation.getCreatedAt()),
+                (current, update) -> update.minTokenVersion() >= current.minTokenVersion() ? update : current);
+    }
+
+    private record Revocation(int minTokenVersion, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.board.security;
+
+import java.time.Instant;
+
+public record VerifiedToken(String username, Long userId, String role, Integer version,
+                            Instant issuedAt, Instant expiresAt) {
+
+    // Tokens issued before user id and role were embedded in the claims
+    public boolean isLegacy() {
+        return userId == null || role == null || version == null;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.board.service;
+
+import com.example.board.cache.CacheInvalidator;
+import com.example.board.cache.CacheNames;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+// Repairs posts.comment_count wherever it drifted from the comments table: rows written outside
+// CommentController, a count missed by a crash between statements, or the initial fill after V8.
+// Sweeps all live posts in id order, one batch per tick, then rests until the next sweep is due.
+// Each batch locks its posts before counting, so a comment insert and its increment, which
+// happen under that lock, are either both counted or neither.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CommentCountReconciler {
+
+    private static final String LOCK_BATCH =
+            "SELECT id FROM posts WHERE id > ? AND deleted_at IS NULL ORDER BY id LIMIT ? FOR NO KEY UPDATE";
+
+    // Counts each post's comments from idx_comments_post_id_created_at_id. A repaired count means
+    // comments changed behind the app's back, so cached lists and their ETags are moved on too.
+    private static final String REPAIR_BATCH = """
+            UPDATE posts p SET comment_count = actual.comments, comments_version = p.comments_version + 1
+            FROM (
+                SELECT p.id, (SELECT count(*) FROM comments c WHERE c.post_id = p.id) AS comments
+                FROM posts p WHERE p.id BETWEEN ? AND ? AND p.deleted_at IS NULL
+            ) actual
+            WHERE p.id = actual.id AND p.comment_count <> actual.comments
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidator cacheInvalidator;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${board.comment-count.reconcile-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${board.comment-count.sweep-interval:1h}")
+    private Duration sweepInterval;
+
+    // Only touched by the scheduler thread
+    private long lastId;
+    private long sweepRepaired;
+    private long nextSweepAt;
+
+    private Counter repaired;
+
+    @PostConstruct
+    public void init() {
+        repaired = meterRegistry.counter("board.comment-count.repaired");
+    }
+
+    @Scheduled(fixedDelayString = "${board.comment-count.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        if (lastId == 0 && System.currentTimeMillis() < nextSweepAt) {
+            return;
+        }
+        try {
+            reconcileBatch();
+        } catch (RuntimeException e) {
+            log.warn("Comment count reconciliation failed after post {}; retrying", lastId, e);
+        }
+    }
+
+    private void reconcileBatch() {
+        long[] range = new long[2];
+        Integer fixed = transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(LOCK_BATCH, Long.class, lastId, batchSize);
+            if (ids.isEmpty()) {
+                return null;
+            }
+            range[0] = ids.get(0);
+            range[1] = ids.get(ids.size() - 1);
+            return jdbcTemplate.update(REPAIR_BATCH, range[0], range[1]);
+        });
+
+        if (fixed == null) {
+            if (sweepRepaired > 0) {
+                log.info("Repaired the comment counts of {} posts", sweepRepaired);
+            }
+            lastId = 0;
+            sweepRepaired = 0;
+            nextSweepAt = System.currentTimeMillis() + sweepInterval.toMillis();
+            return;
+        }
+        lastId = range[1];
+        if (fixed > 0) {
+            repaired.increment(fixed);
+            sweepRepaired += fixed;
+            // Rare outside the first sweep, so dropping the post caches is cheaper than tracking ids
+            cacheInvalidator.clear(CacheNames.POST_DETAIL);
+            cacheInvalidator.clear(CacheNames.POST_PAGES);
+            cacheInvalidator.clear(CacheNames.COMMENTS);
+        }
+    }
+}
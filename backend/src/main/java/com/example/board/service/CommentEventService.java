@@ -0,0 +1,303 @@
+package com.example.board.service;
+
+import com.example.board.dto.CommentResponse;
+import com.example.board.notify.PgNotificationBus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pushes comment creations and deletions to Server-Sent Event subscribers of a post.
+// Every replica, the publishing one included, takes events only from LISTEN/NOTIFY, so all
+// replicas see them in the same order and a client can resume on any of them with
+// Last-Event-ID. Subscribers hold no thread while idle; each has its own queue drained on a
+// virtual thread, so a slow client never holds up the others.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CommentEventService {
+
+    private static final String CHANNEL = "board_comments";
+    // NOTIFY payloads must stay under 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final String CREATED = "comment-created";
+    private static final String DELETED = "comment-deleted";
+    // Tells the client it missed events and should refetch the list
+    private static final String RESET = "reset";
+
+    private final PgNotificationBus notificationBus;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${board.comments.events.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${board.comments.events.replay-size:100}")
+    private int replaySize;
+
+    @Value("${board.comments.events.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${board.comments.events.subscriber-queue:256}")
+    private int subscriberQueue;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Recent events per post, for resuming from Last-Event-ID
+    private Cache<Long, Deque<Event>> recent;
+    private Counter dropped;
+
+    @PostConstruct
+    public void init() {
+        recent = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(timeout)
+                .build();
+        dropped = meterRegistry.counter("board.comments.subscribers.dropped");
+        meterRegistry.gauge("board.comments.subscribers", subscriberCount);
+        notificationBus.subscribe(CHANNEL, this::onNotification);
+        notificationBus.onReconnect(this::resetAll);
+    }
+
+    // type|postId|commentId|json, where json is left out for deletions and oversized comments
+    public void publishCreated(CommentResponse comment) {
+        String prefix = CREATED + "|" + comment.getPostId() + "|" + comment.getId() + "|";
+        try {
+            String payload = prefix + objectMapper.writeValueAsString(comment);
+            notificationBus.publish(CHANNEL, payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES
+                    ? payload : prefix);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize comment {} for subscribers", comment.getId(), e);
+        }
+    }
+
+    public void publishDeleted(Long postId, Long commentId) {
+        notificationBus.publish(CHANNEL, DELETED + "|" + postId + "|" + commentId + "|");
+    }
+
+    // Returns null when this replica already serves max-subscribers streams
+    public SseEmitter subscribe(Long postId, String lastEventId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            dropped.increment();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(postId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        // Flushes the headers so the client sees the stream open right away
+        subscriber.enqueue(SseEmitter.event().comment("connected"));
+        // Registering under the buffer's lock means no event is both replayed and delivered, or neither
+        Deque<Event> events = recent.get(postId, id -> new ArrayDeque<>());
+        synchronized (events) {
+            if (lastEventId != null && !lastEventId.isEmpty()) {
+                replay(subscriber, events, lastEventId);
+            }
+            subscribers.compute(postId, (id, postSubscribers) -> {
+                Set<Subscriber> set = postSubscribers != null ? postSubscribers : ConcurrentHashMap.newKeySet();
+                // The emitter may already have failed while the replay was queued
+                if (!subscriber.closed.get()) {
+                    set.add(subscriber);
+                }
+                return set.isEmpty() ? null : set;
+            });
+        }
+        return emitter;
+    }
+
+    private void replay(Subscriber subscriber, Deque<Event> events, String lastEventId) {
+        boolean found = false;
+        for (Event event : events) {
+            if (found) {
+                subscriber.enqueue(event.toSse());
+            } else if (event.id().equals(lastEventId)) {
+                found = true;
+            }
+        }
+        if (!found) {
+            subscriber.enqueue(SseEmitter.event().name(RESET).data("{}", MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void onNotification(String payload) {
+        String[] parts = payload.split("\\|", 4);
+        if (parts.length != 4) {
+            return;
+        }
+        Long postId;
+        Long commentId;
+        try {
+            postId = Long.parseLong(parts[1]);
+            commentId = Long.parseLong(parts[2]);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed comment notification: {}", payload);
+            return;
+        }
+
+        Event event;
+        if (CREATED.equals(parts[0])) {
+            String data = parts[3].isEmpty() ? load(commentId) : parts[3];
+            if (data == null) {
+                return;
+            }
+            event = new Event("c" + commentId, CREATED, data);
+        } else if (DELETED.equals(parts[0])) {
+            event = new Event("d" + commentId, DELETED, "{\"id\":" + commentId + ",\"postId\":" + postId + "}");
+        } else {
+            return;
+        }
+
+        Deque<Event> events = recent.get(postId, id -> new ArrayDeque<>());
+        synchronized (events) {
+            events.addLast(event);
+            if (events.size() > replaySize) {
+                events.removeFirst();
+            }
+            Set<Subscriber> postSubscribers = subscribers.get(postId);
+            if (postSubscribers != null) {
+                postSubscribers.forEach(subscriber -> subscriber.enqueue(event.toSse()));
+            }
+        }
+    }
+
+    // Comments too large for a notification are read back; every replica does this once
+    private String load(Long commentId) {
+        List<CommentResponse> comments = jdbcTemplate.query(CommentStreamService.SELECT + "WHERE c.id = ?",
+                (rs, rowNum) -> CommentStreamService.toResponse(rs), commentId);
+        if (comments.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(comments.get(0));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize comment {} for subscribers", commentId, e);
+            return null;
+        }
+    }
+
+    // Also keeps proxies and load balancers from closing idle streams
+    @Scheduled(fixedDelayString = "${board.comments.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(postSubscribers ->
+                postSubscribers.forEach(subscriber -> subscriber.enqueue(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    // Events published while the listener was down never arrive, so nothing buffered can be trusted
+    private void resetAll() {
+        log.info("Resetting comment subscribers after notification listener reconnect");
+        recent.invalidateAll();
+        subscribers.values().forEach(postSubscribers -> postSubscribers.forEach(subscriber ->
+                subscriber.enqueue(SseEmitter.event().name(RESET).data("{}", MediaType.APPLICATION_JSON))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(postSubscribers -> postSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdownNow();
+    }
+
+    private record Event(String id, String name, String data) {
+
+        SseEmitter.SseEventBuilder toSse() {
+            return SseEmitter.event().id(id).name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final Long postId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(Long postId, SseEmitter emitter) {
+            this.postId = postId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            // A client this far behind reconnects and resumes instead of growing the heap
+            if (queued.incrementAndGet() > subscriberQueue) {
+                dropped.increment();
+                close();
+                emitter.complete();
+                return;
+            }
+            queue.add(event);
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // An event may have been queued after the last poll but before draining was cleared
+            if (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            queue.clear();
+            subscriberCount.decrementAndGet();
+            // Atomic per post, so a concurrent subscribe never lands in a set that is being dropped
+            subscribers.computeIfPresent(postId, (id, postSubscribers) -> {
+                postSubscribers.remove(this);
+                return postSubscribers.isEmpty() ? null : postSubscribers;
+            });
+        }
+    }
+}
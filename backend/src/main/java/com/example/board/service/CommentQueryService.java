@@ -0,0 +1,69 @@
+package com.example.board.service;
+
+import com.example.board.cache.CacheNames;
+import com.example.board.dto.CommentList;
+import com.example.board.dto.CommentListVersion;
+import com.example.board.dto.CommentResponse;
+import com.example.board.model.Comment;
+import com.example.board.repository.CommentRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class CommentQueryService {
+
+    private final CommentRepository commentRepository;
+    private final MeterRegistry meterRegistry;
+    private final CacheManager cacheManager;
+
+    @Value("${board.comments.stream-threshold:1000}")
+    private int streamThreshold;
+
+    // Null when the post is gone or has more than stream-threshold comments after all, for the caller
+    // to stream them instead; the comment count it decided by can lag behind. The version is read
+    // first, so the list is never older than the version it is served with, only newer.
+    // Read-only like PostQueryService.getPost, and the version and the list come from the same replica
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.COMMENTS, key = "#postId", unless = "#result == null")
+    public CommentList getComments(Long postId) {
+        Optional<CommentListVersion> version = commentRepository.findVersionByPostId(postId);
+        if (version.isEmpty()) {
+            return null;
+        }
+        List<Comment> loaded = commentRepository.findByPostIdOrderByCreatedAtAsc(postId, Limit.of(streamThreshold + 1));
+        if (loaded.size() > streamThreshold) {
+            return null;
+        }
+        List<CommentResponse> comments = loaded.stream()
+                .map(CommentResponse::from)
+                .toList();
+        DistributionSummary.builder("board.comments.rows")
+                .description("Rows returned for a post's comment list")
+                .tag("mode", "list")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(comments.size());
+        return new CommentList(version.get(), comments);
+    }
+
+    // Read from the cached list when there is one so a 304 loads nothing; empty for a missing or tombstoned post
+    public Optional<CommentListVersion> getCommentsVersion(Long postId) {
+        Cache.ValueWrapper cached = cacheManager.getCache(CacheNames.COMMENTS).get(postId);
+        if (cached != null && cached.get() != null) {
+            return Optional.of(((CommentList) cached.get()).version());
+        }
+        return commentRepository.findVersionByPostId(postId);
+    }
+}
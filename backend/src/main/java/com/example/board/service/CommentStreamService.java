@@ -0,0 +1,94 @@
+package com.example.board.service;
+
+import com.example.board.dto.CommentResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+// Writes a post's comments as a JSON array, reading them in keyset pages so memory stays constant
+// however long the thread is and the first rows go out immediately. Each page is its own short
+// read-only transaction that returns its connection before the page is written, so a slow client
+// never pins a pooled connection or holds a snapshot open. Comments added while the stream runs
+// sort last and are included. Produces the same JSON as serializing CommentQueryService.getComments.
+@Service
+@RequiredArgsConstructor
+public class CommentStreamService {
+
+    private static final int PAGE_SIZE = 500;
+
+    static final String SELECT = "SELECT c.id, c.content, u.username, c.post_id, c.parent_id, c.created_at " +
+            "FROM comments c JOIN users u ON u.id = c.author_id ";
+
+    // Both read idx_comments_post_id_created_at_id in order and stop after one page
+    private static final String FIRST_PAGE = SELECT +
+            "WHERE c.post_id = ? ORDER BY c.created_at, c.id LIMIT ?";
+    private static final String NEXT_PAGE = SELECT +
+            "WHERE c.post_id = ? AND (c.created_at, c.id) > (?, ?) ORDER BY c.created_at, c.id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public void writeComments(Long postId, OutputStream out) throws IOException {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            long rows = 0;
+            CommentResponse last = null;
+            while (true) {
+                CommentResponse after = last;
+                List<CommentResponse> page = readOnly.execute(status -> after == null
+                        ? jdbcTemplate.query(FIRST_PAGE, (rs, rowNum) -> toResponse(rs), postId, PAGE_SIZE)
+                        : jdbcTemplate.query(NEXT_PAGE, (rs, rowNum) -> toResponse(rs), postId,
+                                Timestamp.valueOf(after.getCreatedAt()), after.getId(), PAGE_SIZE));
+                for (CommentResponse comment : page) {
+                    generator.writeObject(comment);
+                }
+                // Push each page to the client instead of waiting for the buffer to fill
+                generator.flush();
+                rows += page.size();
+                if (page.size() < PAGE_SIZE) {
+                    break;
+                }
+                last = page.get(page.size() - 1);
+            }
+            generator.writeEndArray();
+
+            DistributionSummary.builder("board.comments.rows")
+                    .description("Rows returned for a post's comment list")
+                    .tag("mode", "stream")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+    }
+
+    static CommentResponse toResponse(ResultSet rs) throws SQLException {
+        CommentResponse response = new CommentResponse();
+        response.setId(rs.getLong("id"));
+        response.setContent(rs.getString("content"));
+        response.setAuthorUsername(rs.getString("username"));
+        response.setPostId(rs.getLong("post_id"));
+        long parentId = rs.getLong("parent_id");
+        response.setParentId(rs.wasNull() ? null : parentId);
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        response.setCreatedAt(createdAt.toLocalDateTime());
+        return response;
+    }
+}
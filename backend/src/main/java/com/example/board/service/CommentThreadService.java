@@ -0,0 +1,128 @@
+package com.example.board.service;
+
+import com.example.board.dto.CommentNode;
+import com.example.board.dto.CommentResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CommentThreadService {
+
+    // One page of root comments, each with its first N replies (in creation order) and
+    // the total number of replies in its subtree
+    private static final String THREAD_PAGE_SQL = """
+            WITH RECURSIVE roots AS (
+                SELECT id, created_at, count(*) OVER () AS total_threads
+                FROM comments
+                WHERE post_id = ? AND parent_id IS NULL
+                ORDER BY created_at, id
+                LIMIT ? OFFSET ?
+            ), tree AS (
+                SELECT id, parent_id, id AS root_id, created_at FROM comments WHERE id IN (SELECT id FROM roots)
+                UNION ALL
+                SELECT c.id, c.parent_id, t.root_id, c.created_at FROM comments c JOIN tree t ON c.parent_id = t.id
+            ), ranked AS (
+                SELECT id, parent_id, root_id,
+                       row_number() OVER (PARTITION BY root_id ORDER BY (id = root_id) DESC, created_at, id) - 1 AS position,
+                       count(*) OVER (PARTITION BY root_id) - 1 AS reply_count
+                FROM tree
+            )
+            SELECT r.id, r.parent_id, r.reply_count, ro.total_threads, c.content, c.created_at, u.username
+            FROM ranked r
+            JOIN roots ro ON ro.id = r.root_id
+            JOIN comments c ON c.id = r.id
+            JOIN users u ON u.id = c.author_id
+            WHERE r.position <= ?
+            ORDER BY ro.created_at, ro.id, r.position
+            """;
+
+    private static final String REPLIES_SQL = """
+            WITH RECURSIVE tree AS (
+                SELECT id, created_at FROM comments WHERE parent_id = ? AND post_id = ?
+                UNION ALL
+                SELECT c.id, c.created_at FROM comments c JOIN tree t ON c.parent_id = t.id
+            )
+            SELECT c.id, c.parent_id, c.content, c.created_at, u.username
+            FROM tree t
+            JOIN comments c ON c.id = t.id
+            JOIN users u ON u.id = c.author_id
+            ORDER BY t.created_at, t.id
+            LIMIT ? OFFSET ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Page<CommentNode> getThreads(Long postId, Pageable pageable, int repliesPerThread) {
+        List<ThreadRow> rows = jdbcTemplate.query(THREAD_PAGE_SQL,
+                (rs, rowNum) -> {
+                    CommentNode node = new CommentNode();
+                    node.setId(rs.getLong("id"));
+                    node.setParentId((Long) rs.getObject("parent_id"));
+                    node.setContent(rs.getString("content"));
+                    node.setAuthorUsername(rs.getString("username"));
+                    node.setPostId(postId);
+                    node.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                    return new ThreadRow(node, rs.getLong("reply_count"), rs.getLong("total_threads"));
+                },
+                postId, pageable.getPageSize(), pageable.getOffset(), repliesPerThread);
+
+        // Replies are ordered by creation time, so every parent precedes its children
+        List<CommentNode> threads = new ArrayList<>();
+        Map<Long, CommentNode> byId = new HashMap<>(rows.size() * 2);
+        for (ThreadRow row : rows) {
+            CommentNode node = row.node();
+            byId.put(node.getId(), node);
+            if (node.getParentId() == null) {
+                node.setReplyCount(row.replyCount());
+                threads.add(node);
+            } else {
+                CommentNode parent = byId.get(node.getParentId());
+                if (parent != null) {
+                    parent.getReplies().add(node);
+                }
+            }
+        }
+
+        long total;
+        if (!rows.isEmpty()) {
+            total = rows.get(0).totalThreads();
+        } else if (pageable.getOffset() == 0) {
+            total = 0;
+        } else {
+            total = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM comments WHERE post_id = ? AND parent_id IS NULL", Long.class, postId);
+        }
+        return new PageImpl<>(threads, pageable, total);
+    }
+
+    // Replies below a thread root in creation order, e.g. starting where getThreads stopped
+    public List<CommentResponse> getReplies(Long postId, Long commentId, int offset, int size) {
+        return jdbcTemplate.query(REPLIES_SQL,
+                (rs, rowNum) -> {
+                    CommentResponse response = new CommentResponse();
+                    response.setId(rs.getLong("id"));
+                    response.setParentId(rs.getLong("parent_id"));
+                    response.setContent(rs.getString("content"));
+                    response.setAuthorUsername(rs.getString("username"));
+                    response.setPostId(postId);
+                    response.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                    return response;
+                },
+                commentId, postId, size, offset);
+    }
+
+    private record ThreadRow(CommentNode node, long replyCount, long totalThreads) {
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.board.service;
+
+import com.example.board.cache.CacheInvalidator;
+import com.example.board.cache.CacheNames;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// Second half of deleting a post or user. The request only tombstones the row, which reads
+// already exclude; this removes the row and everything that references it in set-based
+// batches of at most batch-size rows, each in its own short transaction, on a background
+// thread. Comments go leaves first, so no batch trips the parent_id foreign key however deep
+// a thread is. Tombstones double as the work queue: a purge cut short by a restart resumes
+// on the next pass, and replicas claim different rows with SKIP LOCKED.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeletionService {
+
+    // FOR NO KEY UPDATE leaves comment inserts, which lock the post FOR KEY SHARE, unblocked
+    private static final String CLAIM_POST =
+            "SELECT id FROM posts WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT 1 FOR NO KEY UPDATE SKIP LOCKED";
+    private static final String CLAIM_USER =
+            "SELECT id FROM users WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT 1 FOR NO KEY UPDATE SKIP LOCKED";
+
+    // Replies always belong to their parent's post, so a post's comments form whole trees
+    private static final String DELETE_POST_COMMENTS = """
+            DELETE FROM comments WHERE id IN (
+                SELECT c.id FROM comments c
+                WHERE c.post_id = ? AND NOT EXISTS (SELECT 1 FROM comments r WHERE r.parent_id = c.id)
+                LIMIT ?)
+            """;
+
+    // A deleted user's comments take their replies with them, whoever wrote those. Listed once per
+    // user, deepest first: a comment is deeper than its parent however the subtrees overlap.
+    private static final String LIST_USER_COMMENTS = """
+            WITH RECURSIVE doomed AS (
+                SELECT id, 0 AS depth FROM comments WHERE author_id = ?
+                UNION ALL
+                SELECT c.id, d.depth + 1 FROM comments c JOIN doomed d ON c.parent_id = d.id
+            )
+            SELECT id FROM doomed GROUP BY id ORDER BY max(depth) DESC, id
+            """;
+
+    // The posts they were on lose them from their comment counts, and move their comments_version,
+    // in the same statement
+    private static final String DELETE_USER_COMMENTS = """
+            WITH deleted AS (
+                DELETE FROM comments WHERE id = ANY(?)
+                RETURNING id, post_id
+            ), counted AS (
+                UPDATE posts p SET comment_count = p.comment_count - d.deleted,
+                    comments_version = p.comments_version + 1
+                FROM (SELECT post_id, count(*) AS deleted FROM deleted GROUP BY post_id) d
+                WHERE p.id = d.post_id
+            )
+            SELECT id, post_id FROM deleted
+            """;
+
+    private static final String TOMBSTONE_USER_POSTS = """
+            UPDATE posts SET deleted_at = now() WHERE id IN (
+                SELECT id FROM posts WHERE author_id = ? AND deleted_at IS NULL LIMIT ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidator cacheInvalidator;
+    private final CommentEventService commentEventService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${board.deletion.batch-size:500}")
+    private int batchSize;
+
+    // Pause between batches so a large purge leaves room for request traffic
+    @Value("${board.deletion.batch-pause-ms:20}")
+    private long batchPauseMs;
+
+    private final ExecutorService purger = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "deletion-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean running = true;
+
+    // Comments left to delete for the user being purged; only touched by the purger thread
+    private UserComments userComments;
+
+    private Counter purgedPosts;
+    private Counter purgedUsers;
+    private Counter purgedComments;
+
+    @PostConstruct
+    public void init() {
+        purgedPosts = meterRegistry.counter("board.deletion.purged", "type", "post");
+        purgedUsers = meterRegistry.counter("board.deletion.purged", "type", "user");
+        purgedComments = meterRegistry.counter("board.deletion.purged", "type", "comment");
+    }
+
+    // Starts a purge pass soon after a tombstone, instead of waiting for the next scheduled one
+    public void purgeSoon() {
+        if (scheduled.compareAndSet(false, true)) {
+            purger.execute(() -> {
+                scheduled.set(false);
+                purge();
+            });
+        }
+    }
+
+    // Picks up tombstones left by other replicas or by a restart
+    @Scheduled(fixedDelayString = "${board.deletion.interval-ms:10000}")
+    public void purgeTombstones() {
+        purgeSoon();
+    }
+
+    private void purge() {
+        try {
+            while (running) {
+                // A user's posts are tombstoned by purgeUserBatch and then purged as posts
+                boolean userWork = purgeUserBatch();
+                boolean postWork = purgePostBatch();
+                if (!userWork && !postWork) {
+                    return;
+                }
+                Thread.sleep(batchPauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Purge pass failed; retrying on the next one", e);
+        }
+    }
+
+    // Deletes one batch of a tombstoned post's comments, or the post itself once none are left
+    private boolean purgePostBatch() {
+        PostBatch batch;
+        try {
+            batch = transactionTemplate.execute(status -> postBatch());
+        } catch (DataIntegrityViolationException e) {
+            // A comment was added after the last batch; the next pass deletes it first
+            log.debug("Post purge raced with a new comment", e);
+            return false;
+        }
+        if (batch == null || !batch.worked()) {
+            return false;
+        }
+        if (batch.purgedPostId() != null) {
+            cacheInvalidator.evict(CacheNames.COMMENTS, batch.purgedPostId());
+        }
+        return true;
+    }
+
+    private PostBatch postBatch() {
+        List<Long> claimed = jdbcTemplate.queryForList(CLAIM_POST, Long.class);
+        if (claimed.isEmpty()) {
+            return PostBatch.NONE;
+        }
+        Long postId = claimed.get(0);
+        int comments = jdbcTemplate.update(DELETE_POST_COMMENTS, postId, batchSize);
+        if (comments > 0) {
+            purgedComments.increment(comments);
+            return new PostBatch(true, null);
+        }
+        jdbcTemplate.update("DELETE FROM trending_scores WHERE post_id = ?", postId);
+        jdbcTemplate.update("DELETE FROM posts WHERE id = ?", postId);
+        purgedPosts.increment();
+        log.info("Purged deleted post {}", postId);
+        return new PostBatch(true, postId);
+    }
+
+    // One step of purging a tombstoned user: tombstone a batch of their posts, else delete a
+    // batch of their comment subtrees, else delete the user once their posts are purged too.
+    // Caches are evicted after the batch commits, so nothing re-caches the rows in between.
+    private boolean purgeUserBatch() {
+        UserBatch batch;
+        try {
+            batch = transactionTemplate.execute(status -> userBatch());
+        } catch (DataIntegrityViolationException e) {
+            // A reply was added to a listed comment; the next pass lists them again
+            log.debug("User purge raced with a new post or comment", e);
+            userComments = null;
+            return false;
+        }
+        if (batch == null || !batch.worked()) {
+            return false;
+        }
+        if (batch.postsTombstoned()) {
+            cacheInvalidator.clear(CacheNames.POST_DETAIL);
+            cacheInvalidator.clear(CacheNames.POST_PAGES);
+            cacheInvalidator.clear(CacheNames.POST_COUNTS);
+        }
+        Map<Long, List<Long>> byPost = batch.deletedComments().stream().collect(Collectors.groupingBy(
+                row -> ((Number) row.get("post_id")).longValue(),
+                Collectors.mapping(row -> ((Number) row.get("id")).longValue(), Collectors.toList())));
+        byPost.forEach((postId, commentIds) -> {
+            cacheInvalidator.evict(CacheNames.COMMENTS, postId);
+            cacheInvalidator.evict(CacheNames.POST_DETAIL, postId);
+            commentIds.forEach(commentId -> commentEventService.publishDeleted(postId, commentId));
+        });
+        return true;
+    }
+
+    private UserBatch userBatch() {
+        List<Long> claimed = jdbcTemplate.queryForList(CLAIM_USER, Long.class);
+        if (claimed.isEmpty()) {
+            return UserBatch.NONE;
+        }
+        Long userId = claimed.get(0);
+
+        if (jdbcTemplate.update(TOMBSTONE_USER_POSTS, userId, batchSize) > 0) {
+            return new UserBatch(true, true, List.of());
+        }
+
+        if (userComments == null || !userComments.userId.equals(userId)) {
+            userComments = new UserComments(userId, jdbcTemplate.queryForList(LIST_USER_COMMENTS, Long.class, userId));
+        }
+        if (userComments.next < userComments.ids.size()) {
+            List<Long> ids = userComments.take(batchSize);
+            List<Map<String, Object>> deleted = jdbcTemplate.queryForList(DELETE_USER_COMMENTS, (Object) ids.toArray(Long[]::new));
+            purgedComments.increment(deleted.size());
+            return new UserBatch(true, false, deleted);
+        }
+        // List again in case comments were added while these were deleted; done once that comes back empty
+        boolean listedNone = userComments.ids.isEmpty();
+        userComments = null;
+        if (!listedNone) {
+            return new UserBatch(true, false, List.of());
+        }
+
+        // Wait for purgePostBatch to finish the user's tombstoned posts
+        Boolean hasPosts = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM posts WHERE author_id = ?)", Boolean.class, userId);
+        if (Boolean.TRUE.equals(hasPosts)) {
+            return UserBatch.NONE;
+        }
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        purgedUsers.increment();
+        log.info("Purged deleted user {}", userId);
+        return new UserBatch(true, false, List.of());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        purger.shutdownNow();
+    }
+
+    private record PostBatch(boolean worked, Long purgedPostId) {
+
+        static final PostBatch NONE = new PostBatch(false, null);
+    }
+
+    // Keyset-walked by position rather than re-listed for every batch
+    private static final class UserComments {
+
+        private final Long userId;
+        private final List<Long> ids;
+        private int next;
+
+        UserComments(Long userId, List<Long> ids) {
+            this.userId = userId;
+            this.ids = ids;
+        }
+
+        List<Long> take(int count) {
+            List<Long> batch = ids.subList(next, Math.min(next + count, ids.size()));
+            next += batch.size();
+            return batch;
+        }
+    }
+
+    private record UserBatch(boolean worked, boolean postsTombstoned, List<Map<String, Object>> deletedComments) {
+
+        static final UserBatch NONE = new UserBatch(false, false, List.of());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.board.service;
+
+import com.example.board.cache.CacheNames;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+
+// Totals for the post listings. EXACT runs COUNT(*) and caches it briefly (writes clear the cache);
+// ESTIMATED reads the planner's row estimate and only counts exactly when that is cheap anyway.
+@Service
+@RequiredArgsConstructor
+public class PostCountService {
+
+    public enum Mode {
+        EXACT, ESTIMATED
+    }
+
+    public record Total(long value, boolean exact) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${board.post-count.mode:EXACT}")
+    private Mode mode;
+
+    // Below this estimate an exact count is cheap, and planner estimates for small sets are the least reliable
+    @Value("${board.post-count.exact-below:10000}")
+    private long exactBelow;
+
+    public Total countAll() {
+        // Tombstones are few and indexed, so subtracting them keeps the plan of a plain count
+        return count("all", "SELECT (SELECT count(*) FROM posts) - " +
+                        "(SELECT count(*) FROM posts WHERE deleted_at IS NOT NULL)",
+                () -> jdbcTemplate.queryForObject(
+                        "SELECT reltuples::bigint FROM pg_class WHERE oid = 'posts'::regclass", Long.class));
+    }
+
+    public Total countMatches(String tsQuery) {
+        return count("search:" + tsQuery,
+                "SELECT count(*) FROM posts WHERE search_vector @@ to_tsquery('simple', ?) AND deleted_at IS NULL",
+                () -> planRows("EXPLAIN (FORMAT JSON) SELECT 1 FROM posts WHERE search_vector @@ to_tsquery('simple', ?)",
+                        tsQuery),
+                tsQuery);
+    }
+
+    private Total count(String key, String countSql, Supplier<Long> estimate, Object... args) {
+        Cache cache = cacheManager.getCache(CacheNames.POST_COUNTS);
+        if (mode == Mode.ESTIMATED) {
+            Total estimated = cache.get("estimate:" + key, () -> {
+                Long rows = estimate.get();
+                // reltuples is -1 until the table has been vacuumed or analyzed
+                return rows != null && rows >= exactBelow ? new Total(rows, false) : null;
+            });
+            if (estimated != null) {
+                return estimated;
+            }
+        }
+        return cache.get("exact:" + key, () -> new Total(jdbcTemplate.queryForObject(countSql, Long.class, args), true));
+    }
+
+    private Long planRows(String explainSql, Object... args) {
+        String plan = jdbcTemplate.queryForObject(explainSql, String.class, args);
+        try {
+            JsonNode root = objectMapper.readTree(plan);
+            return root.get(0).get("Plan").get("Plan Rows").asLong();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable EXPLAIN output", e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.board.service;
+
+import com.example.board.cache.CacheNames;
+import com.example.board.dto.CountedPage;
+import com.example.board.dto.PostResponse;
+import com.example.board.dto.PostSummaryResponse;
+import com.example.board.dto.PostVersion;
+import com.example.board.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class PostQueryService {
+
+    // Orders of the unsearched listing, each served by an index
+    public enum Order {
+        LATEST(Sort.by("createdAt").descending()),
+        // Denormalized counts, so this never reads the comments table
+        COMMENTS(Sort.by(Sort.Order.desc("commentCount"), Sort.Order.desc("id")));
+
+        private final Sort sort;
+
+        Order(Sort sort) {
+            this.sort = sort;
+        }
+    }
+
+    private final PostRepository postRepository;
+    private final PostCountService postCountService;
+    private final CacheManager cacheManager;
+
+    // Served by a replica when there are some; CacheInvalidator evicts again once a lagging one
+    // would have caught up or been taken out, so a stale fill does not outlive the write for long
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.POST_DETAIL, key = "#id")
+    public Optional<PostResponse> getPost(Long id) {
+        return postRepository.findById(id).map(PostResponse::from);
+    }
+
+    // Validator for conditional GETs, read from the cached response when there is one so a 304 loads nothing
+    public Optional<PostVersion> getPostVersion(Long id) {
+        Cache.ValueWrapper cached = cacheManager.getCache(CacheNames.POST_DETAIL).get(id);
+        if (cached != null) {
+            return Optional.ofNullable((PostResponse) cached.get())
+                    .map(post -> new PostVersion(post.getUpdatedAt(), post.getCommentCount()));
+        }
+        return postRepository.findVersionById(id);
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.POST_PAGES, key = "#order + ':' + #page + ':' + #size",
+            condition = "#page < T(com.example.board.cache.CacheNames).CACHED_PAGE_COUNT")
+    public Page<PostSummaryResponse> getPostPage(Order order, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size, order.sort);
+        PostCountService.Total total = postCountService.countAll();
+        return new CountedPage<>(postRepository.findSummaries(pageable), pageable, total.value(), total.exact());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.board.service;
+
+import jakarta.annotation.PreDestroy;
+import com.example.board.cache.CacheInvalidator;
+import com.example.board.cache.CacheNames;
+import com.example.board.notify.PgNotificationBus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ViewCountService {
+
+    private static final String FLUSH_SQL = "UPDATE posts SET view_count = view_count + ? WHERE id = ?";
+    // Keeps each NOTIFY statement well under the bind parameter limit
+    private static final int EVICTIONS_PER_NOTIFY = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidator cacheInvalidator;
+    private final PgNotificationBus notificationBus;
+
+    // Views not yet written back, keyed by post id
+    private final Map<Long, PendingViews> pending = new ConcurrentHashMap<>();
+
+    public void increment(Long postId) {
+        add(postId, 1);
+    }
+
+    private void add(Long postId, long views) {
+        PendingViews counter = pending.computeIfAbsent(postId, id -> new PendingViews());
+        counter.add(views);
+        // flush() dropped the counter after we looked it up. Whatever it did not pick up after
+        // retiring it is ours to move to the current counter.
+        if (counter.retired) {
+            long orphaned = counter.sumThenReset();
+            if (orphaned > 0) {
+                add(postId, orphaned);
+            }
+        }
+    }
+
+    public long pendingCount(Long postId) {
+        LongAdder adder = pending.get(postId);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    @Scheduled(fixedDelayString = "${board.view-count.flush-interval-ms:5000}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        pending.forEach((postId, counter) -> {
+            long delta = counter.sumThenReset();
+            // Drop posts that had no views during the last interval. A view that lands on the counter
+            // meanwhile is either in the second sum or sees the retired flag and re-adds itself.
+            if (delta == 0 && pending.remove(postId, counter)) {
+                counter.retired = true;
+                delta = counter.sumThenReset();
+            }
+            if (delta > 0) {
+                batch.add(new Object[]{delta, postId});
+            }
+        });
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // All or nothing, so a failed flush can re-queue every delta without counting any twice
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush {} view count deltas, re-queueing", batch.size(), e);
+            for (Object[] row : batch) {
+                add((Long) row[1], (Long) row[0]);
+            }
+            return;
+        }
+
+        // Cached details on every replica hold the old persisted count
+        for (int from = 0; from < batch.size(); from += EVICTIONS_PER_NOTIFY) {
+            List<Object[]> rows = batch.subList(from, Math.min(from + EVICTIONS_PER_NOTIFY, batch.size()));
+            notificationBus.publishTogether(
+                    () -> rows.forEach(row -> cacheInvalidator.evict(CacheNames.POST_DETAIL, row[1])));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static final class PendingViews extends LongAdder {
+        // Set once flush() has removed the counter from the map
+        volatile boolean retired;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.board.trending;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Space-Saving heavy hitters over weighted scores. At most capacity counters are kept; when full,
+// a new item takes over the smallest counter and inherits its score, so scores can only be
+// overestimated, by at most that counter's error. Not thread-safe; TrendingService guards it.
+final class SpaceSavingTopK {
+
+    static final class Counter {
+        final long id;
+        double score;
+        double error;
+
+        Counter(long id, double score, double error) {
+            this.id = id;
+            this.score = score;
+            this.error = error;
+        }
+    }
+
+    private static final Comparator<Counter> BY_SCORE =
+            Comparator.<Counter>comparingDouble(c -> c.score).thenComparingLong(c -> c.id);
+
+    private final int capacity;
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byScore = new TreeSet<>(BY_SCORE);
+
+    SpaceSavingTopK(int capacity) {
+        this.capacity = capacity;
+    }
+
+    void add(long id, double weight) {
+        Counter counter = counters.get(id);
+        if (counter != null) {
+            byScore.remove(counter);
+            counter.score += weight;
+        } else if (counters.size() < capacity) {
+            counter = new Counter(id, weight, 0);
+            counters.put(id, counter);
+        } else {
+            Counter smallest = byScore.pollFirst();
+            counters.remove(smallest.id);
+            counter = new Counter(id, smallest.score + weight, smallest.score);
+            counters.put(id, counter);
+        }
+        byScore.add(counter);
+    }
+
+    // Lifts an item to at least the given score, for merging a summary that saw the same events
+    void raise(long id, double score) {
+        Counter counter = counters.get(id);
+        if (counter == null) {
+            add(id, score);
+        } else if (counter.score < score) {
+            byScore.remove(counter);
+            counter.score = score;
+            byScore.add(counter);
+        }
+    }
+
+    // Multiplies every score; used when moving the decay landmark
+    void scale(double factor) {
+        List<Counter> all = new ArrayList<>(byScore);
+        byScore.clear();
+        for (Counter counter : all) {
+            counter.score *= factor;
+            counter.error *= factor;
+            byScore.add(counter);
+        }
+    }
+
+    List<Counter> top(int k) {
+        List<Counter> top = new ArrayList<>(Math.min(k, byScore.size()));
+        Iterator<Counter> iterator = byScore.descendingIterator();
+        while (iterator.hasNext() && top.size() < k) {
+            Counter counter = iterator.next();
+            top.add(new Counter(counter.id, counter.score, counter.error));
+        }
+        return top;
+    }
+
+    int size() {
+        return counters.size();
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.board.trending;
+
+import com.example.board.dto.PostSummaryResponse;
+import com.example.board.notify.PgNotificationBus;
+import com.example.board.repository.PostRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Ranks posts by exponentially decayed views and comments without touching the posts table.
+// Scores use forward decay: an event at time t weighs exp(lambda * (t - landmark)), so stored
+// scores never need to be decayed and only the ratio to "now" is applied when reading.
+// Replicas exchange the weights they fold over LISTEN/NOTIFY and so converge on one ranking;
+// a snapshot table carries the ranking across restarts and listener outages.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrendingService {
+
+    private static final String CHANNEL = "board_trending";
+    // NOTIFY payloads must stay under 8000 bytes
+    private static final int MAX_PAYLOAD_CHARS = 7000;
+    // Move the landmark before exp() gets anywhere near overflowing a double
+    private static final int REBASE_AFTER_HALF_LIVES = 32;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PgNotificationBus notificationBus;
+    private final PostRepository postRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${board.trending.half-life:6h}")
+    private Duration halfLife;
+
+    @Value("${board.trending.comment-weight:5}")
+    private double commentWeight;
+
+    @Value("${board.trending.capacity:1000}")
+    private int capacity;
+
+    @Value("${board.trending.max-k:100}")
+    private int maxK;
+
+    // Weights recorded since the last fold, keyed by post id
+    private final Map<Long, PendingWeight> pending = new ConcurrentHashMap<>();
+
+    private double lambdaPerMilli;
+    private SpaceSavingTopK summary;
+    private long landmarkMillis;
+
+    private volatile Ranking ranking = new Ranking(List.of(), 0);
+
+    @PostConstruct
+    public void init() {
+        lambdaPerMilli = Math.log(2) / halfLife.toMillis();
+        summary = new SpaceSavingTopK(capacity);
+        landmarkMillis = System.currentTimeMillis();
+        meterRegistry.gauge("board.trending.tracked", this, service -> service.ranking.tracked());
+        notificationBus.subscribe(CHANNEL, this::onNotification);
+        // Deltas sent while the listener was down are lost; the snapshot covers most of them
+        notificationBus.onReconnect(this::restore);
+    }
+
+    public void recordView(Long postId) {
+        record(postId, 1);
+    }
+
+    public void recordComment(Long postId) {
+        record(postId, commentWeight);
+    }
+
+    public int getMaxK() {
+        return maxK;
+    }
+
+    // O(K): reads the precomputed ranking
+    public List<Long> topPostIds(int k) {
+        return ranking.top().stream()
+                .limit(k)
+                .map(counter -> counter.id)
+                .collect(Collectors.toList());
+    }
+
+    public List<PostSummaryResponse> getTrendingPosts(int limit) {
+        // Deleted posts linger until they decay out, so look a little further than asked
+        List<Long> ids = topPostIds(Math.min(maxK, limit * 2));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PostSummaryResponse> byId = postRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostSummaryResponse::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(post -> post != null)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private void record(Long postId, double weight) {
+        PendingWeight counter = pending.computeIfAbsent(postId, id -> new PendingWeight());
+        counter.add(weight);
+        // fold() dropped the counter after we looked it up; move what it did not pick up
+        if (counter.retired) {
+            double orphaned = counter.sumThenReset();
+            if (orphaned > 0) {
+                record(postId, orphaned);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${board.trending.fold-interval-ms:1000}")
+    public void fold() {
+        Map<Long, Double> deltas = new HashMap<>();
+        pending.forEach((postId, counter) -> {
+            double delta = counter.sumThenReset();
+            // Same hand-off as ViewCountService.flush: a hit racing the removal is either in the
+            // second sum or sees the retired flag and records itself again
+            if (delta == 0 && pending.remove(postId, counter)) {
+                counter.retired = true;
+                delta = counter.sumThenReset();
+            }
+            if (delta > 0) {
+                deltas.put(postId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        apply(deltas, now);
+        broadcast(deltas, now);
+    }
+
+    private void apply(Map<Long, Double> deltas, long eventMillis) {
+        synchronized (summary) {
+            if (eventMillis - landmarkMillis > REBASE_AFTER_HALF_LIVES * halfLife.toMillis()) {
+                summary.scale(Math.exp(-lambdaPerMilli * (eventMillis - landmarkMillis)));
+                landmarkMillis = eventMillis;
+            }
+            double forward = Math.exp(lambdaPerMilli * (eventMillis - landmarkMillis));
+            deltas.forEach((postId, delta) -> summary.add(postId, delta * forward));
+            ranking = new Ranking(summary.top(maxK), summary.size());
+        }
+    }
+
+    // nodeId|epochMillis|postId:weight,postId:weight,...
+    private void broadcast(Map<Long, Double> deltas, long eventMillis) {
+        String prefix = PgNotificationBus.NODE_ID + "|" + eventMillis + "|";
+        StringBuilder payload = new StringBuilder(prefix);
+        for (Map.Entry<Long, Double> delta : deltas.entrySet()) {
+            String entry = delta.getKey() + ":" + delta.getValue();
+            if (payload.length() + entry.length() + 1 > MAX_PAYLOAD_CHARS) {
+                notificationBus.publish(CHANNEL, payload.toString());
+                payload.setLength(prefix.length());
+            }
+            if (payload.length() > prefix.length()) {
+                payload.append(',');
+            }
+            payload.append(entry);
+        }
+        notificationBus.publish(CHANNEL, payload.toString());
+    }
+
+    private void onNotification(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3 || PgNotificationBus.NODE_ID.equals(parts[0])) {
+            return;
+        }
+        try {
+            Map<Long, Double> deltas = new HashMap<>();
+            for (String entry : parts[2].split(",")) {
+                int separator = entry.indexOf(':');
+                deltas.put(Long.parseLong(entry.substring(0, separator)), Double.parseDouble(entry.substring(separator + 1)));
+            }
+            apply(deltas, Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed trending notification: {}", payload);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreSnapshot() {
+        restore();
+    }
+
+    // Takes the larger of the local and snapshot score, so restoring twice never double counts
+    private void restore() {
+        List<Object[]> rows = jdbcTemplate.query("SELECT post_id, score, scored_at FROM trending_scores",
+                (rs, rowNum) -> new Object[]{rs.getLong("post_id"), rs.getDouble("score"), rs.getTimestamp("scored_at").getTime()});
+        synchronized (summary) {
+            for (Object[] row : rows) {
+                summary.raise((Long) row[0], (Double) row[1] * Math.exp(lambdaPerMilli * ((Long) row[2] - landmarkMillis)));
+            }
+            ranking = new Ranking(summary.top(maxK), summary.size());
+        }
+        if (!rows.isEmpty()) {
+            log.info("Restored {} trending scores from snapshot", rows.size());
+        }
+    }
+
+    // Every replica writes the same converged ranking, so the last writer winning is fine
+    @Scheduled(fixedDelayString = "${board.trending.snapshot-interval-ms:300000}",
+            initialDelayString = "${board.trending.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        long now = System.currentTimeMillis();
+        List<SpaceSavingTopK.Counter> counters;
+        long landmark;
+        synchronized (summary) {
+            counters = summary.top(capacity);
+            landmark = landmarkMillis;
+        }
+        if (counters.isEmpty()) {
+            return;
+        }
+
+        double decay = Math.exp(-lambdaPerMilli * (now - landmark));
+        Timestamp scoredAt = new Timestamp(now);
+        List<Object[]> batch = new ArrayList<>(counters.size());
+        counters.forEach(counter -> batch.add(new Object[]{counter.id, counter.score * decay, scoredAt}));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate("INSERT INTO trending_scores (post_id, score, scored_at) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (post_id) DO UPDATE SET score = EXCLUDED.score, scored_at = EXCLUDED.scored_at", batch);
+                jdbcTemplate.update("DELETE FROM trending_scores WHERE scored_at < ?", scoredAt);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to snapshot {} trending scores", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        fold();
+        snapshot();
+    }
+
+    // Rebuilt on every fold so requests never touch the summary or its lock
+    private record Ranking(List<SpaceSavingTopK.Counter> top, int tracked) {
+    }
+
+    private static final class PendingWeight extends DoubleAdder {
+        // Set once fold() has removed the counter from the map
+        volatile boolean retired;
+    }
+}
@@ -0,0 +1,14 @@
+-- Token versions and revocations for claim-based authentication. IF NOT EXISTS because
+-- databases that ran ddl-auto after tokens carried versions already have them.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS token_revocations (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    min_token_version INTEGER NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+-- TokenRevocationService polls for recent rows and purges old ones. Not built concurrently:
+-- the purge keeps the table to one token lifetime of rows.
+CREATE INDEX IF NOT EXISTS idx_token_revocations_created_at ON token_revocations (created_at);
@@ -0,0 +1,4 @@
+-- Moves with every comment added to or removed from the post, in the statement that adds or
+-- removes it, so the comment list's ETag changes even when a delete and an insert leave the
+-- count and the highest id as they were (pooled ids are not handed out in order).
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS comments_version BIGINT NOT NULL DEFAULT 0;
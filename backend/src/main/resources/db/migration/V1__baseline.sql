@@ -0,0 +1,30 @@
+-- The schema as Hibernate's ddl-auto left it before migrations existed, and nothing newer.
+-- Databases created back then are baselined at this version (spring.flyway.baseline-version),
+-- so this only runs on empty ones and every later change must live in a later migration.
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(20) NOT NULL CHECK (role IN ('USER', 'ADMIN')),
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE posts (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title VARCHAR(200) NOT NULL,
+    content TEXT NOT NULL,
+    author_id BIGINT NOT NULL REFERENCES users (id),
+    view_count BIGINT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE comments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    content TEXT NOT NULL,
+    author_id BIGINT NOT NULL REFERENCES users (id),
+    post_id BIGINT NOT NULL REFERENCES posts (id),
+    parent_id BIGINT REFERENCES comments (id),
+    created_at TIMESTAMP(6) NOT NULL
+);
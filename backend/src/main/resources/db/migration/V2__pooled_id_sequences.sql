@@ -0,0 +1,19 @@
+-- ddl-auto created the ids as identity columns. The pooled optimizer needs plain sequences
+-- (schema validation does not see identity ones) that step by allocationSize (50), and it
+-- takes each nextval as the top of a block of 50 ids, so every sequence resumes 50 past the
+-- highest id in use. The defaults keep raw inserts that leave out the id working; such a
+-- nextval tops a block no one else is handed.
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE users_id_seq INCREMENT BY 50 OWNED BY users.id;
+SELECT setval('users_id_seq', (SELECT coalesce(max(id), 0) + 50 FROM users), false);
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_id_seq');
+
+ALTER TABLE posts ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE posts_id_seq INCREMENT BY 50 OWNED BY posts.id;
+SELECT setval('posts_id_seq', (SELECT coalesce(max(id), 0) + 50 FROM posts), false);
+ALTER TABLE posts ALTER COLUMN id SET DEFAULT nextval('posts_id_seq');
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE comments_id_seq INCREMENT BY 50 OWNED BY comments.id;
+SELECT setval('comments_id_seq', (SELECT coalesce(max(id), 0) + 50 FROM comments), false);
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_id_seq');
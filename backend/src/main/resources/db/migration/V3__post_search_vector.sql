@@ -0,0 +1,4 @@
+-- Maintained by PostSearchService and PostRepository.updateByIdAndAuthorId; rows written
+-- elsewhere are indexed by the startup backfill.
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector;
+CREATE INDEX IF NOT EXISTS idx_posts_search_vector ON posts USING GIN (search_vector);
@@ -0,0 +1,6 @@
+-- Snapshot of TrendingService's ranking, restored at startup
+CREATE TABLE IF NOT EXISTS trending_scores (
+    post_id BIGINT PRIMARY KEY,
+    score DOUBLE PRECISION NOT NULL,
+    scored_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,5 @@
+-- Deleting a post or user only stamps deleted_at; reads exclude tombstoned rows at once and
+-- DeletionService purges them and everything that references them in the background.
+-- Adding a nullable column without a default rewrites nothing.
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP(6);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP(6);
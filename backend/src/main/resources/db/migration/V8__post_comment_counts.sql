@@ -0,0 +1,4 @@
+-- Comment totals kept on the post, so list pages show and sort by them without reading comments.
+-- A constant default is stored in the catalog and rewrites nothing; CommentCountReconciler
+-- fills in the existing counts in batches after deployment.
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS comment_count BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- Most-commented listing, offset pages ordered by (comment_count DESC, id DESC).
+-- Kept apart from V8 because Flyway runs CONCURRENTLY migrations outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posts_comment_count_id ON posts (comment_count DESC, id DESC)
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,59 @@
+package com.example.board.cache;
+
+import com.example.board.notify.PgNotificationBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class CacheInvalidatorTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheNames.POST_DETAIL);
+    private final PgNotificationBus notificationBus = mock(PgNotificationBus.class);
+    private final CacheInvalidator invalidator = new CacheInvalidator(cacheManager, notificationBus);
+
+    @AfterEach
+    void tearDown() {
+        invalidator.shutdown();
+    }
+
+    @Test
+    void evictionIsBroadcast() {
+        start("");
+        Cache cache = cacheManager.getCache(CacheNames.POST_DETAIL);
+        cache.put(1L, "post");
+
+        invalidator.evict(CacheNames.POST_DETAIL, 1L);
+
+        assertThat(cache.get(1L)).isNull();
+        verify(notificationBus).publish("board_cache", PgNotificationBus.NODE_ID + "|" + CacheNames.POST_DETAIL + "|1");
+    }
+
+    // A read right after the write may refill the entry from a replica that has not replayed it yet
+    @Test
+    void withReplicasAStaleRefillIsEvictedAgain() throws InterruptedException {
+        start("jdbc:postgresql://replica/boarddb");
+        Cache cache = cacheManager.getCache(CacheNames.POST_DETAIL);
+        cache.put(1L, "post");
+
+        invalidator.evict(CacheNames.POST_DETAIL, 1L);
+        cache.put(1L, "stale post");
+
+        Thread.sleep(400);
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    private void start(String replicaUrls) {
+        ReflectionTestUtils.setField(invalidator, "replicaUrls", replicaUrls);
+        ReflectionTestUtils.setField(invalidator, "replicaMaxLag", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(invalidator, "healthCheckIntervalMs", 100L);
+        invalidator.init();
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.board.config;
+
+import com.example.board.notify.PgNotificationBus;
+import com.example.board.support.TestDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+// Routes between two databases on the embedded server, standing in for the primary and a
+// replica; current_database() shows where a connection went
+class ReplicaRoutingTest {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private HikariDataSource primary;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        primary = pool(TestDatabase.create("routing_primary"));
+        routing = new ReplicaRoutingDataSource(primary, List.of(pool(TestDatabase.create("routing_replica"))),
+                Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaRoutingDataSource.forcePrimary(false);
+        SecurityContextHolder.clearContext();
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void onlyReadOnlyTransactionsGoToTheReplica() throws SQLException {
+        assertThat(database()).isEqualTo("routing_primary");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(database()).isEqualTo("routing_replica");
+        assertThat(database()).isEqualTo("routing_replica");
+
+        ReplicaRoutingDataSource.forcePrimary(true);
+        assertThat(database()).isEqualTo("routing_primary");
+    }
+
+    @Test
+    void unreachableReplicaFallsBackUntilTheHealthCheckBringsItBack() throws Exception {
+        try (Connection connection = primary.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS routing_late");
+        }
+        String lateUrl = primary.getJdbcUrl().replace("routing_primary", "routing_late");
+        routing = new ReplicaRoutingDataSource(primary, List.of(pool(lateUrl)), Duration.ofSeconds(5),
+                new SimpleMeterRegistry());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(database()).isEqualTo("routing_primary");
+        TestDatabase.create("routing_late");
+        // Out of rotation until checked, however soon it answers again
+        assertThat(database()).isEqualTo("routing_primary");
+
+        // Hikari backs off after failed connects, so it may take a few health checks
+        for (int check = 0; check < 40 && !database().equals("routing_late"); check++) {
+            routing.checkReplicas();
+            Thread.sleep(250);
+        }
+        assertThat(database()).isEqualTo("routing_late");
+    }
+
+    @Test
+    void credentialedConnectionsAreRoutedToo() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Hikari itself refuses other credentials; that must not take the replica out
+        assertThatThrownBy(() -> routing.getConnection("postgres", ""))
+                .isInstanceOf(SQLFeatureNotSupportedException.class);
+        assertThat(database()).isEqualTo("routing_replica");
+    }
+
+    @Test
+    void writersReadTheirWritesFromThePrimary() throws Exception {
+        PgNotificationBus notificationBus = mock(PgNotificationBus.class);
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(notificationBus, Duration.ofSeconds(10));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(notificationBus).subscribe(eq("board_writes"), handler.capture());
+
+        // A write request reads from the primary, and its author keeps doing so afterwards
+        assertThat(readDuring(filter, "POST", "alice")).isEqualTo("routing_primary");
+        verify(notificationBus).publish("board_writes", PgNotificationBus.NODE_ID + "|alice");
+        assertThat(readDuring(filter, "GET", "alice")).isEqualTo("routing_primary");
+        assertThat(readDuring(filter, "GET", "bob")).isEqualTo("routing_replica");
+        assertThat(readDuring(filter, "GET", null)).isEqualTo("routing_replica");
+
+        // A write announced by another app replica pins its author here as well
+        handler.getValue().accept("other-node|bob");
+        assertThat(readDuring(filter, "GET", "bob")).isEqualTo("routing_primary");
+    }
+
+    @Test
+    void theReadYourWritesWindowCloses() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(mock(PgNotificationBus.class), Duration.ofMillis(200));
+
+        readDuring(filter, "PUT", "alice");
+        assertThat(readDuring(filter, "GET", "alice")).isEqualTo("routing_primary");
+        Thread.sleep(300);
+        assertThat(readDuring(filter, "GET", "alice")).isEqualTo("routing_replica");
+        filter.prune();
+    }
+
+    // The database a read-only transaction inside the request would read from
+    private String readDuring(ReadYourWritesFilter filter, String method, String username) throws Exception {
+        if (username != null) {
+            SecurityContextHolder.getContext().setAuthentication(
+                    UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+        } else {
+            SecurityContextHolder.clearContext();
+        }
+        List<String> seen = new ArrayList<>();
+        FilterChain chain = (request, response) -> {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            try {
+                seen.add(database());
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            }
+        };
+        filter.doFilter(new MockHttpServletRequest(method, "/api/posts"), new MockHttpServletResponse(), chain);
+        return seen.get(0);
+    }
+
+    private String database() throws SQLException {
+        try (Connection connection = routing.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT current_database()")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private HikariDataSource pool(String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(url);
+        pool.setUsername("postgres");
+        pool.setMaximumPoolSize(2);
+        pool.setConnectionTimeout(250);
+        pool.setInitializationFailTimeout(-1);
+        pools.add(pool);
+        return pool;
+    }
+}
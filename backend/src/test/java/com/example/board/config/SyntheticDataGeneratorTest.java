@@ -0,0 +1,43 @@
+package com.example.board.config;
+
+import com.example.board.support.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "board.generator.users=50",
+        "board.generator.posts=2000",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("generate-data")
+class SyntheticDataGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, "synthetic_data");
+    }
+
+    @Test
+    void generatedPostsCarryTheirCommentCounts() {
+        Long comments = jdbcTemplate.queryForObject("SELECT count(*) FROM comments", Long.class);
+        Long counted = jdbcTemplate.queryForObject("SELECT sum(comment_count) FROM posts", Long.class);
+        Long drifted = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM posts p
+                WHERE p.comment_count <> (SELECT count(*) FROM comments c WHERE c.post_id = p.id)
+                """, Long.class);
+
+        assertThat(comments).isGreaterThan(2000);
+        assertThat(counted).isEqualTo(comments);
+        assertThat(drifted).isZero();
+    }
+}
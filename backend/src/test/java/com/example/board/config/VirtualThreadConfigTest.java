@@ -0,0 +1,34 @@
+package com.example.board.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// The DataSource is only wrapped in virtual thread mode, where no worker pool bounds concurrency
+class VirtualThreadConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class))
+            .withUserConfiguration(VirtualThreadConfig.class)
+            .withBean(DataSource.class, () -> mock(DataSource.class))
+            .withPropertyValues("board.db.max-concurrency=3");
+
+    @Test
+    void virtualThreadModeLimitsTheDataSource() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context ->
+                assertThat(context.getBean(DataSource.class)).isInstanceOfSatisfying(ConcurrencyLimitingDataSource.class,
+                        dataSource -> assertThat(dataSource.availablePermits()).isEqualTo(3)));
+    }
+
+    @Test
+    void platformThreadModeLeavesTheDataSourceAlone() {
+        contextRunner.run(context ->
+                assertThat(context.getBean(DataSource.class)).isNotInstanceOf(ConcurrencyLimitingDataSource.class));
+    }
+}
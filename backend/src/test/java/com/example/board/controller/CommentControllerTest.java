@@ -0,0 +1,151 @@
+package com.example.board.controller;
+
+import com.example.board.support.TestDatabase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class CommentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long postId;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, "comment_controller");
+    }
+
+    // DataLoader seeds the demo posts and comments
+    @BeforeEach
+    void pickPost() {
+        postId = jdbcTemplate.queryForObject(
+                "SELECT post_id FROM comments WHERE parent_id IS NULL ORDER BY id LIMIT 1", Long.class);
+    }
+
+    @Test
+    void threadsArePaged() throws Exception {
+        mockMvc.perform(get("/api/posts/{postId}/comments/threads", postId).param("size", "1").param("replies", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].replies.length()").value(0));
+    }
+
+    @Test
+    void threadParametersOutOfBoundsAreRejected() throws Exception {
+        String threads = "/api/posts/{postId}/comments/threads";
+        mockMvc.perform(get(threads, postId).param("size", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get(threads, postId).param("size", "101")).andExpect(status().isBadRequest());
+        mockMvc.perform(get(threads, postId).param("page", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get(threads, postId).param("replies", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get(threads, postId).param("replies", "21")).andExpect(status().isBadRequest());
+        mockMvc.perform(get(threads, postId).param("size", "abc")).andExpect(status().isBadRequest());
+
+        String replies = "/api/posts/{postId}/comments/{commentId}/replies";
+        mockMvc.perform(get(replies, postId, 1).param("offset", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get(replies, postId, 1).param("size", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get(replies, postId, 1).param("size", "201")).andExpect(status().isBadRequest());
+    }
+
+    // Pooled ids are not handed out in order, so a delete and an insert can leave the count and the
+    // highest id as they were; the list has still changed and must not revalidate as current
+    @Test
+    void deleteAndInsertChangeTheETag() throws Exception {
+        String token = logIn();
+        long thread = create(token, "/api/posts", "{\"title\":\"etag\",\"content\":\"thread\"}");
+        String comments = "/api/posts/" + thread + "/comments";
+        long first = create(token, comments, "{\"content\":\"first\"}");
+        long second = create(token, comments, "{\"content\":\"second\"}");
+        // As if another replica's pooled block were far ahead
+        jdbcTemplate.update("UPDATE comments SET id = ? WHERE id = ?", 1_000_000_000L, second);
+
+        String etag = mockMvc.perform(get(comments)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get(comments).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+
+        mockMvc.perform(delete(comments + "/" + first).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+        create(token, comments, "{\"content\":\"third\"}");
+
+        String next = mockMvc.perform(get(comments).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].content").value(contains("second", "third")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(next).isNotEqualTo(etag);
+        mockMvc.perform(get(comments).header(HttpHeaders.IF_NONE_MATCH, next)).andExpect(status().isNotModified());
+    }
+
+    // List pages are cached with each post's comment count, so comment writes have to drop them
+    @Test
+    void listPagesFollowCommentWrites() throws Exception {
+        String token = logIn();
+        long thread = create(token, "/api/posts", "{\"title\":\"counted\",\"content\":\"thread\"}");
+        String count = "$.content[?(@.id == " + thread + ")].commentCount";
+        mockMvc.perform(get("/api/posts")).andExpect(status().isOk()).andExpect(jsonPath(count).value(contains(0)));
+
+        long comment = create(token, "/api/posts/" + thread + "/comments", "{\"content\":\"first\"}");
+        mockMvc.perform(get("/api/posts")).andExpect(status().isOk()).andExpect(jsonPath(count).value(contains(1)));
+
+        mockMvc.perform(delete("/api/posts/{postId}/comments/{commentId}", thread, comment)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/posts")).andExpect(status().isOk()).andExpect(jsonPath(count).value(contains(0)));
+    }
+
+    @Test
+    void commentsOfAMissingOrDeletedPostAreNotFound() throws Exception {
+        String token = logIn();
+        long deleted = create(token, "/api/posts", "{\"title\":\"gone\",\"content\":\"soon\"}");
+        long comment = create(token, "/api/posts/" + deleted + "/comments", "{\"content\":\"reply\"}");
+        mockMvc.perform(get("/api/posts/{postId}/comments", deleted)).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/posts/{id}", deleted).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        for (long postId : new long[] {deleted, Long.MAX_VALUE}) {
+            mockMvc.perform(get("/api/posts/{postId}/comments", postId)).andExpect(status().isNotFound());
+            mockMvc.perform(get("/api/posts/{postId}/comments/threads", postId)).andExpect(status().isNotFound());
+            mockMvc.perform(get("/api/posts/{postId}/comments/{commentId}/replies", postId, comment))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(get("/api/posts/{postId}/comments/events", postId)).andExpect(status().isNotFound());
+        }
+    }
+
+    // user1 is seeded by DataLoader
+    private String logIn() throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"user1\",\"password\":\"user123\"}"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+
+    private long create(String token, String path, String body) throws Exception {
+        String response = mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
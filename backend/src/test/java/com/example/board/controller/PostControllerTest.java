@@ -0,0 +1,85 @@
+package com.example.board.controller;
+
+import com.example.board.support.TestDatabase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Views stay pending for the whole test, so the counts read back are exact
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "board.view-count.flush-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class PostControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String token;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, "post_controller");
+    }
+
+    // user1 is seeded by DataLoader
+    @BeforeEach
+    void logIn() throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"user1\",\"password\":\"user123\"}"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(body).get("token").asText();
+    }
+
+    // Views are left out of the detail ETag, so counting one does not invalidate the client's copy;
+    // an edit does
+    @Test
+    void detailETagIgnoresViewsButFollowsEdits() throws Exception {
+        long postId = create("/api/posts", "{\"title\":\"etag\",\"content\":\"first\"}");
+        String detail = "/api/posts/" + postId;
+
+        String etag = mockMvc.perform(get(detail))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.viewCount").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/");
+        mockMvc.perform(get(detail).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+        mockMvc.perform(get(detail)).andExpect(jsonPath("$.viewCount").value(3));
+
+        mockMvc.perform(put(detail).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"etag\",\"content\":\"edited\"}")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        String next = mockMvc.perform(get(detail).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").value("edited"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(next).isNotEqualTo(etag);
+    }
+
+    private long create(String path, String body) throws Exception {
+        String response = mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.board.controller;
+
+import com.example.board.support.StatementCounter;
+import com.example.board.support.StatementCounting;
+import com.example.board.support.TestDatabase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every post and comment write must take one or two statements, counted by StatementCounter at
+// the DataSource, notifications included
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@Import(StatementCounting.class)
+class StatementBudgetTest {
+
+    private static final int WRITE_BUDGET = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String token;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, "statement_budget");
+    }
+
+    // user1 is seeded by DataLoader
+    @BeforeEach
+    void logIn() throws Exception {
+        token = json(mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"user1\",\"password\":\"user123\"}"))).get("token").asText();
+    }
+
+    @Test
+    void postWritesStayWithinBudget() throws Exception {
+        JsonNode created = write(post("/api/posts"), "{\"title\":\"budget\",\"content\":\"counted statements\"}");
+        long postId = created.get("id").asLong();
+        assertThat(created.get("authorUsername").asText()).isEqualTo("user1");
+        // Indexed by the insert itself
+        assertThat(jdbcTemplate.queryForObject("SELECT search_vector IS NOT NULL FROM posts WHERE id = ?",
+                Boolean.class, postId)).isTrue();
+
+        JsonNode updated = write(put("/api/posts/{id}", postId), "{\"title\":\"budget 2\",\"content\":\"updated\"}");
+        assertThat(updated.get("title").asText()).isEqualTo("budget 2");
+
+        write(delete("/api/posts/{id}", postId), null);
+        // Tombstoned, or already purged in the background
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM posts WHERE id = ? AND deleted_at IS NULL",
+                Long.class, postId)).isZero();
+    }
+
+    @Test
+    void commentWritesStayWithinBudget() throws Exception {
+        long postId = write(post("/api/posts"), "{\"title\":\"thread\",\"content\":\"for comments\"}").get("id").asLong();
+
+        long rootId = write(post("/api/posts/{postId}/comments", postId), "{\"content\":\"root\"}").get("id").asLong();
+        JsonNode reply = write(post("/api/posts/{postId}/comments", postId),
+                "{\"content\":\"reply\",\"parentId\":" + rootId + "}");
+        assertThat(reply.get("parentId").asLong()).isEqualTo(rootId);
+        assertThat(commentCount(postId)).isEqualTo(2);
+
+        write(delete("/api/posts/{postId}/comments/{id}", postId, reply.get("id").asLong()), null);
+        assertThat(commentCount(postId)).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedCommentsChangeNothing() throws Exception {
+        long postId = write(post("/api/posts"), "{\"title\":\"other\",\"content\":\"post\"}").get("id").asLong();
+        long otherPostId = write(post("/api/posts"), "{\"title\":\"another\",\"content\":\"post\"}").get("id").asLong();
+        long rootId = write(post("/api/posts/{postId}/comments", otherPostId), "{\"content\":\"root\"}").get("id").asLong();
+
+        // A parent on another post
+        mockMvc.perform(authorized(post("/api/posts/{postId}/comments", postId))
+                        .content("{\"content\":\"reply\",\"parentId\":" + rootId + "}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(authorized(post("/api/posts/{postId}/comments", Long.MAX_VALUE)).content("{\"content\":\"x\"}"))
+                .andExpect(status().isNotFound());
+        assertThat(commentCount(postId)).isZero();
+    }
+
+    private JsonNode write(MockHttpServletRequestBuilder request, String body) throws Exception {
+        if (body != null) {
+            request.content(body);
+        }
+        StatementCounter.reset();
+        JsonNode response = json(mockMvc.perform(authorized(request)));
+        // MockMvc serves the request on this thread, so its count is still here
+        assertThat(StatementCounter.current()).as("statements for %s", request).isBetween(1, WRITE_BUDGET);
+        return response;
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token).contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private JsonNode json(ResultActions result) throws Exception {
+        String body = result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return body.isEmpty() ? null : objectMapper.readTree(body);
+    }
+
+    private long commentCount(long postId) {
+        return jdbcTemplate.queryForObject("SELECT comment_count FROM posts WHERE id = ?", Long.class, postId);
+    }
+}
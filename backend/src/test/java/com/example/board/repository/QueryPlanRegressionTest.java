@@ -0,0 +1,262 @@
+package com.example.board.repository;
+
+import com.example.board.service.CommentStreamService;
+import com.example.board.service.CommentThreadService;
+import com.example.board.support.RecordingDataSource;
+import com.example.board.support.TestDatabase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Query plan regression test: calls every repository query (and the JDBC comment queries) against
+// a large generated fixture, EXPLAINs the exact statements they sent and fails when a plan scans
+// posts or comments sequentially or sorts more than MAX_SORT_ROWS of their rows. Writes run in a
+// rolled-back transaction. Full-text search and the exact COUNT(*) are left out; they are GIN and
+// count paths. Plans are taken with the default planner costs.
+@SpringBootTest(properties = {
+        "board.generator.users=2000",
+        "board.generator.posts=100000",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("generate-data")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTest {
+
+    private static final Set<String> LARGE_TABLES = Set.of("posts", "comments");
+    private static final long MAX_SORT_ROWS = 1000;
+    // Generated threads stay short; one long thread shows whether thread reads stay in index order
+    private static final int LONG_THREAD_COMMENTS = 20_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CommentThreadService commentThreadService;
+    @Autowired
+    private CommentStreamService commentStreamService;
+
+    private Fixture fixture;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, "plan_check");
+    }
+
+    @TestConfiguration
+    static class StatementRecording {
+
+        @Bean
+        static BeanPostProcessor statementRecorder() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof RecordingDataSource)) {
+                        return new RecordingDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @BeforeAll
+    void loadFixture() {
+        jdbcTemplate.update("INSERT INTO comments (id, content, author_id, post_id, created_at) " +
+                "SELECT nextval('comments_id_seq'), 'thread comment ' || g, p.author_id, p.id, " +
+                "p.created_at + g * interval '1 second' " +
+                "FROM (SELECT id, author_id, created_at FROM posts ORDER BY id LIMIT 1) p, " +
+                "generate_series(1, ?) g", LONG_THREAD_COMMENTS);
+        jdbcTemplate.execute("ANALYZE");
+        fixture = pickFixture();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> everyQueryUsesItsIndexes() {
+        return queries(fixture).entrySet().stream().map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+            List<RecordingDataSource.RecordedStatement> statements = record(query.getValue());
+            assertThat(statements).as("statements executed by %s", query.getKey()).isNotEmpty();
+            List<String> problems = new ArrayList<>();
+            for (RecordingDataSource.RecordedStatement statement : statements) {
+                check(explain(statement), problems);
+            }
+            assertThat(problems).as("plan problems of %s", query.getKey()).isEmpty();
+        }));
+    }
+
+    private Map<String, Runnable> queries(Fixture f) {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("PostRepository.findSummaries(first page)", () ->
+                postRepository.findSummaries(PageRequest.of(0, 10, Sort.by("createdAt").descending())));
+        queries.put("PostRepository.findSummaries(page 500)", () ->
+                postRepository.findSummaries(PageRequest.of(500, 10, Sort.by("createdAt").descending())));
+        queries.put("PostRepository.findSummaries(most commented)", () ->
+                postRepository.findSummaries(PageRequest.of(0, 10,
+                        Sort.by(Sort.Order.desc("commentCount"), Sort.Order.desc("id")))));
+        queries.put("PostRepository.findLatestSummaries", () -> postRepository.findLatestSummaries(Limit.of(11)));
+        queries.put("PostRepository.findLatestSummariesBefore", () ->
+                postRepository.findLatestSummariesBefore(f.cursorCreatedAt(), f.cursorId(), Limit.of(11)));
+        queries.put("PostRepository.findSummariesByIdIn", () ->
+                postRepository.findSummariesByIdIn(List.of(f.postId(), f.cursorId())));
+        queries.put("PostRepository.findById", () -> postRepository.findById(f.postId()));
+        queries.put("PostRepository.findVersionById", () -> postRepository.findVersionById(f.postId()));
+        queries.put("PostRepository.findAuthorIdById", () -> postRepository.findAuthorIdById(f.postId()));
+        queries.put("PostRepository.updateByIdAndAuthorId", () -> rolledBack(() ->
+                postRepository.updateByIdAndAuthorId(f.postId(), f.postAuthorId(), "title", "content",
+                        "title", "content", LocalDateTime.now())));
+        queries.put("PostRepository.insert", () -> rolledBack(() ->
+                postRepository.insert(f.postAuthorId(), "title", "content", "title", "content", LocalDateTime.now())));
+        queries.put("PostRepository.tombstoneByIdAndAuthorId", () -> rolledBack(() ->
+                postRepository.tombstoneByIdAndAuthorId(f.postId(), f.postAuthorId(), LocalDateTime.now())));
+
+        queries.put("CommentRepository.findByPostIdOrderByCreatedAtAsc", () ->
+                commentRepository.findByPostIdOrderByCreatedAtAsc(f.postId(), Limit.of(1001)));
+        queries.put("CommentRepository.findByParentId", () -> commentRepository.findByParentId(f.parentId()));
+        queries.put("CommentRepository.findById", () -> commentRepository.findById(f.leafId()));
+        queries.put("CommentRepository.findVersionByPostId", () -> commentRepository.findVersionByPostId(f.postId()));
+        queries.put("CommentRepository.findAuthorIdByIdAndPostId", () ->
+                commentRepository.findAuthorIdByIdAndPostId(f.leafId(), f.leafPostId()));
+        queries.put("CommentRepository.insert", () -> rolledBack(() ->
+                commentRepository.insert(f.parentPostId(), f.parentId(), f.leafAuthorId(), "reply", LocalDateTime.now())));
+        queries.put("CommentRepository.deleteByIdAndPostIdAndAuthorId", () -> rolledBack(() ->
+                commentRepository.deleteByIdAndPostIdAndAuthorId(f.leafId(), f.leafPostId(), f.leafAuthorId())));
+        queries.put("CommentThreadService.getThreads", () ->
+                commentThreadService.getThreads(f.postId(), PageRequest.of(0, 20), 3));
+        queries.put("CommentThreadService.getReplies", () ->
+                commentThreadService.getReplies(f.parentPostId(), f.parentId(), 0, 20));
+        queries.put("CommentStreamService.writeComments", () -> {
+            try {
+                commentStreamService.writeComments(f.postId(), OutputStream.nullOutputStream());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        queries.put("UserRepository.findByUsername", () -> userRepository.findByUsername("admin"));
+        queries.put("UserRepository.findById", () -> userRepository.findById(f.postAuthorId()));
+        queries.put("UserRepository.findIdByUsername", () -> userRepository.findIdByUsername("admin"));
+        queries.put("UserRepository.existsByEmail", () -> userRepository.existsByEmail("admin@example.com"));
+        return queries;
+    }
+
+    // The busiest post, a comment with replies and a reply without any, picked with unrecorded queries
+    private Fixture pickFixture() {
+        Map<String, Object> post = jdbcTemplate.queryForMap("SELECT p.id, p.author_id FROM posts p " +
+                "JOIN (SELECT post_id FROM comments GROUP BY post_id ORDER BY count(*) DESC LIMIT 1) c ON c.post_id = p.id");
+        Map<String, Object> cursor = jdbcTemplate.queryForMap(
+                "SELECT id, created_at FROM posts ORDER BY created_at DESC, id DESC OFFSET 1000 LIMIT 1");
+        Map<String, Object> parent = jdbcTemplate.queryForMap(
+                "SELECT p.id, p.post_id FROM comments p WHERE EXISTS (SELECT 1 FROM comments c WHERE c.parent_id = p.id) LIMIT 1");
+        Map<String, Object> leaf = jdbcTemplate.queryForMap("SELECT c.id, c.post_id, c.author_id FROM comments c " +
+                "WHERE c.parent_id IS NOT NULL AND NOT EXISTS (SELECT 1 FROM comments r WHERE r.parent_id = c.id) LIMIT 1");
+        return new Fixture(
+                (Long) post.get("id"), (Long) post.get("author_id"),
+                (Long) cursor.get("id"), ((Timestamp) cursor.get("created_at")).toLocalDateTime(),
+                (Long) parent.get("id"), (Long) parent.get("post_id"),
+                (Long) leaf.get("id"), (Long) leaf.get("post_id"), (Long) leaf.get("author_id"));
+    }
+
+    private List<RecordingDataSource.RecordedStatement> record(Runnable query) {
+        List<RecordingDataSource.RecordedStatement> statements;
+        RecordingDataSource.start();
+        try {
+            query.run();
+        } finally {
+            statements = RecordingDataSource.stop();
+        }
+        return statements;
+    }
+
+    private void rolledBack(Runnable write) {
+        transactionTemplate.executeWithoutResult(status -> {
+            write.run();
+            status.setRollbackOnly();
+        });
+    }
+
+    private JsonNode explain(RecordingDataSource.RecordedStatement statement) {
+        return jdbcTemplate.execute((ConnectionCallback<JsonNode>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+                statement.bind(explain);
+                try (ResultSet rs = explain.executeQuery()) {
+                    rs.next();
+                    return objectMapper.readTree(rs.getString(1)).get(0).get("Plan");
+                } catch (IOException e) {
+                    throw new IllegalStateException("Unreadable plan for " + statement.sql(), e);
+                }
+            }
+        });
+    }
+
+    private void check(JsonNode plan, List<String> problems) {
+        String nodeType = plan.path("Node Type").asText();
+        String relation = plan.path("Relation Name").asText();
+        if (nodeType.equals("Seq Scan") && LARGE_TABLES.contains(relation)) {
+            problems.add("Seq Scan on " + relation);
+        }
+        if (nodeType.endsWith("Sort") && plan.path("Plan Rows").asLong() > MAX_SORT_ROWS && readsLargeTable(plan)) {
+            problems.add(nodeType + " of " + plan.path("Plan Rows").asLong() + " rows by " + plan.path("Sort Key"));
+        }
+        plan.path("Plans").forEach(child -> check(child, problems));
+    }
+
+    // Sorts of CTE results (one page of threads) are bounded by the page, not the table
+    private boolean readsLargeTable(JsonNode plan) {
+        for (JsonNode child : plan.path("Plans")) {
+            if (child.path("Parent Relationship").asText().equals("InitPlan")) {
+                continue;
+            }
+            if (LARGE_TABLES.contains(child.path("Relation Name").asText()) || readsLargeTable(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Fixture(Long postId, Long postAuthorId, Long cursorId, LocalDateTime cursorCreatedAt,
+                           Long parentId, Long parentPostId, Long leafId, Long leafPostId, Long leafAuthorId) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.board.repository;
+
+import com.example.board.model.Post;
+import com.example.board.model.User;
+import com.example.board.support.TestDatabase;
+import com.example.board.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A database from before migrations existed: the schema ddl-auto created (V1), rows in it and
+// no Flyway history. The application has to baseline it, migrate it and pass schema validation.
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, "schema_migration");
+        DataSource legacy = TestDatabase.dataSource("schema_migration");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql")).execute(legacy);
+        TestFixtures fixtures = new TestFixtures(new JdbcTemplate(legacy));
+        long legacyUser = fixtures.user("legacy");
+        for (int i = 1; i <= 120; i++) {
+            fixtures.post(legacyUser, "post " + i);
+        }
+    }
+
+    @Test
+    void baselinesAnExistingDatabaseAndMigratesIt() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank", String.class);
+        assertThat(versions.get(0)).isEqualTo("1");
+        assertThat(versions).contains("2", "5", "10");
+
+        User legacy = userRepository.findByUsername("legacy").orElseThrow();
+        assertThat(legacy.getTokenVersion()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM token_revocations", Long.class)).isZero();
+    }
+
+    @Test
+    void newIdsStayClearOfExistingRows() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT max(id) FROM posts", Long.class);
+        User legacy = userRepository.findByUsername("legacy").orElseThrow();
+
+        List<Post> saved = postRepository.saveAll(List.of(post(legacy), post(legacy), post(legacy)));
+
+        assertThat(saved).allSatisfy(post -> assertThat(post.getId()).isGreaterThan(maxId));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(DISTINCT id) FROM posts", Long.class)).isEqualTo(123);
+    }
+
+    private Post post(User author) {
+        return Post.builder().title("new").content("content").author(author).build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.board.search;
+
+import com.example.board.dto.PostCursor;
+import com.example.board.dto.PostSummaryResponse;
+import com.example.board.support.TestDatabase;
+import com.example.board.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class PostSearchServiceTest {
+
+    @Autowired
+    private PostSearchService postSearchService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestFixtures fixtures;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, "post_search");
+    }
+
+    @BeforeEach
+    void fixtures() {
+        fixtures = new TestFixtures(jdbcTemplate);
+    }
+
+    // Walking the cursor visits every match once, newest first, including posts that share a
+    // timestamp and so are told apart by id
+    @Test
+    void latestMatchesArePagedByCursor() {
+        long author = fixtures.userId("user1");
+        List<Long> matches = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            matches.add(fixtures.post(author, "키셋검색 keyset " + i));
+        }
+        fixtures.post(author, "unrelated");
+        jdbcTemplate.update("UPDATE posts SET created_at = (SELECT created_at FROM posts WHERE id = ?) WHERE id = ?",
+                matches.get(2), matches.get(3));
+        // Fixture rows have no search vector until the backfill indexes them
+        postSearchService.backfill();
+
+        List<Long> seen = new ArrayList<>();
+        PostCursor after = null;
+        List<PostSummaryResponse> page;
+        while (!(page = postSearchService.searchLatest("키셋", after, 2)).isEmpty()) {
+            page.forEach(post -> seen.add(post.getId()));
+            PostSummaryResponse last = page.get(page.size() - 1);
+            after = new PostCursor(last.getCreatedAt(), last.getId());
+        }
+
+        assertThat(seen).containsExactlyElementsOf(matches.reversed());
+        assertThat(postSearchService.searchLatest("KEYS", null, 10)).extracting(PostSummaryResponse::getId)
+                .containsExactlyElementsOf(matches.reversed());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.board.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTokenizerTest {
+
+    // A particle splits off the Latin word it follows, so "Docker를" is still found by "docker"
+    @Test
+    void cjkRunsAreIndexedAsOverlappingBigrams() {
+        assertThat(SearchTokenizer.documentTerms("Docker를 배우는 쿠버네티스"))
+                .isEqualTo("docker 를 배우 우는 쿠버 버네 네티 티스");
+        assertThat(SearchTokenizer.documentTerms("東京大学")).isEqualTo("東京 京大 大学");
+    }
+
+    @Test
+    void latinWordsAndNumbersAreLowercasedTerms() {
+        assertThat(SearchTokenizer.documentTerms("Spring-Boot 3.2, JPA!")).isEqualTo("spring boot 3 2 jpa");
+    }
+
+    @Test
+    void queriesMatchWordsAsPrefixesAndCjkRunsByEveryBigram() {
+        assertThat(SearchTokenizer.toTsQuery("Kube 쿠버네티스")).isEqualTo("kube:* & 쿠버 & 버네 & 네티 & 티스");
+        assertThat(SearchTokenizer.toTsQuery("docker")).isEqualTo("docker:*");
+        // A single character has no bigram, so it matches bigrams that start with it
+        assertThat(SearchTokenizer.toTsQuery("쿠")).isEqualTo("쿠:*");
+    }
+
+    @Test
+    void queriesWithoutTermsMatchNothing() {
+        assertThat(SearchTokenizer.toTsQuery("  !? ")).isNull();
+        assertThat(SearchTokenizer.toTsQuery(null)).isNull();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.board.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void acquiringOverTheLimitFails() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 0);
+
+        assertThat(limit.tryAcquire()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isEqualTo(2);
+        assertThat(limit.tryAcquire()).isZero();
+        assertThat(limit.inFlight()).isEqualTo(2);
+
+        limit.release(System.nanoTime(), 2, false);
+        assertThat(limit.tryAcquire()).isEqualTo(2);
+    }
+
+    // Fully used at steady latency, the limit probes upwards until it reaches the maximum
+    @Test
+    void growsWhileLatencyHolds() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 50, 0);
+
+        windows(limit, 50, RTT, false);
+
+        assertThat(limit.limit()).isEqualTo(50);
+    }
+
+    // Latency well above the baseline means requests are queueing, so the limit comes down
+    @Test
+    void shrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(40, 1, 50, 0);
+        windows(limit, 20, RTT, false);
+        int before = limit.limit();
+
+        windows(limit, 20, RTT * 5, false);
+
+        assertThat(limit.limit()).isLessThan(before / 2);
+    }
+
+    @Test
+    void backsOffOnFailuresDownToTheMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 50, 0);
+
+        limit.release(System.nanoTime() - RTT, 20, true);
+        assertThat(limit.limit()).isEqualTo(18);
+
+        windows(limit, 50, RTT, true);
+        assertThat(limit.limit()).isEqualTo(4);
+    }
+
+    // Each window is ten samples taken at the current limit
+    private static void windows(AdaptiveConcurrencyLimit limit, int count, long rttNanos, boolean failed) {
+        for (int window = 0; window < count; window++) {
+            for (int sample = 0; sample < 10; sample++) {
+                limit.release(System.nanoTime() - rttNanos, limit.limit(), failed);
+            }
+        }
+    }
+}
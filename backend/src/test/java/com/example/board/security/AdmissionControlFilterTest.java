@@ -0,0 +1,83 @@
+package com.example.board.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every class gets a limit of one, so a request made while another of its class is in the chain is over it
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment();
+        for (String requestClass : List.of("read", "write", "auth")) {
+            environment.setProperty("board.admission." + requestClass + ".initial-limit", "1");
+            environment.setProperty("board.admission." + requestClass + ".max-limit", "1");
+        }
+        filter = new AdmissionControlFilter(environment, meterRegistry);
+        filter.init();
+    }
+
+    @Test
+    void requestsOverTheirClassLimitAreShed() throws Exception {
+        List<Integer> statuses = new ArrayList<>();
+        run(request("GET", "/api/posts"), (req, res) -> {
+            MockHttpServletResponse shed = run(request("GET", "/api/posts/1"), (r, s) -> { });
+            assertThat(shed.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+            statuses.add(shed.getStatus());
+            // Writes and logins have budgets of their own
+            statuses.add(run(request("POST", "/api/posts"), (r, s) -> { }).getStatus());
+            statuses.add(run(request("POST", "/api/auth/login"), (r, s) -> { }).getStatus());
+        });
+
+        assertThat(statuses).containsExactly(503, 200, 200);
+        assertThat(meterRegistry.counter("board.admission.rejected", "class", "read").count()).isEqualTo(1);
+    }
+
+    @Test
+    void loginsOverTheLimitGetTooManyRequests() throws Exception {
+        List<Integer> statuses = new ArrayList<>();
+        run(request("POST", "/api/auth/login"), (req, res) ->
+                statuses.add(run(request("POST", "/api/auth/signup"), (r, s) -> { }).getStatus()));
+
+        assertThat(statuses).containsExactly(429);
+    }
+
+    // Health probes and event streams pass however full the limits are
+    @Test
+    void healthChecksAndEventStreamsAreNeverShed() throws Exception {
+        List<Integer> statuses = new ArrayList<>();
+        run(request("GET", "/api/posts"), (req, res) -> {
+            statuses.add(run(request("GET", "/actuator/health"), (r, s) -> { }).getStatus());
+            statuses.add(run(request("GET", "/api/posts/1/comments/events"), (r, s) -> { }).getStatus());
+        });
+
+        assertThat(statuses).containsExactly(200, 200);
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request, FilterChain chain)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        return new MockHttpServletRequest(method, path);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.board.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BestEffortRehashAuthenticationProviderTest {
+
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final UserDetailsPasswordService passwordService = mock(UserDetailsPasswordService.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final BestEffortRehashAuthenticationProvider provider = new BestEffortRehashAuthenticationProvider();
+
+    @BeforeEach
+    void setUp() {
+        UserDetails user = User.withUsername("alice").password("$2a$04$stale").roles("USER").build();
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(user);
+        when(passwordEncoder.matches("secret", "$2a$04$stale")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("$2a$04$stale")).thenReturn(true);
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(passwordService);
+    }
+
+    @Test
+    void rehashesOnLogin() {
+        when(passwordEncoder.encode("secret")).thenReturn("$2a$10$fresh");
+        when(passwordService.updatePassword(any(), anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Authentication result = provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("alice", "secret"));
+
+        assertThat(result.isAuthenticated()).isTrue();
+        verify(passwordService).updatePassword(any(), any());
+    }
+
+    @Test
+    void loginSucceedsWhenTheRehashIsRejected() {
+        when(passwordEncoder.encode("secret")).thenThrow(new PasswordHashingRejectedException(1));
+
+        Authentication result = provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("alice", "secret"));
+
+        assertThat(result.isAuthenticated()).isTrue();
+        assertThat(((UserDetails) result.getPrincipal()).getUsername()).isEqualTo("alice");
+        assertThat(result.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+        verify(passwordService, never()).updatePassword(any(), any());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.board.security;
+
+import com.example.board.model.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "a-test-secret-that-is-long-enough-for-hs256";
+
+    private final User alice = User.builder().id(7L).username("alice").role(User.Role.ADMIN).tokenVersion(3).build();
+
+    @Test
+    void claimsSurviveTheRoundTrip() {
+        JwtUtil jwtUtil = jwtUtil(60_000);
+
+        VerifiedToken token = jwtUtil.verify(jwtUtil.generateToken(alice));
+
+        assertThat(token.username()).isEqualTo("alice");
+        assertThat(token.userId()).isEqualTo(7L);
+        assertThat(token.role()).isEqualTo("ADMIN");
+        assertThat(token.version()).isEqualTo(3);
+        assertThat(token.isLegacy()).isFalse();
+    }
+
+    // The same bearer token on the next request is not parsed or verified again
+    @Test
+    void repeatVerificationsAreServedFromTheCache() {
+        JwtUtil jwtUtil = jwtUtil(60_000);
+        String jwt = jwtUtil.generateToken(alice);
+
+        VerifiedToken first = jwtUtil.verify(jwt);
+
+        assertThat(jwtUtil.verify(jwt)).isSameAs(first);
+        assertThat(jwtUtil.parse(jwt)).isNotSameAs(first).isEqualTo(first);
+        assertThat(jwtUtil.validateToken(jwt, "alice")).isTrue();
+        assertThat(jwtUtil.validateToken(jwt, "bob")).isFalse();
+    }
+
+    @Test
+    void tokensSignedWithAnotherKeyAreRejected() {
+        JwtUtil other = jwtUtil(60_000, SECRET + "-rotated");
+        String forged = other.generateToken(alice);
+
+        assertThatThrownBy(() -> jwtUtil(60_000).verify(forged)).isInstanceOf(JwtException.class);
+    }
+
+    // A cached token is not accepted once it has expired
+    @Test
+    void expiredTokensAreRejected() throws InterruptedException {
+        JwtUtil jwtUtil = jwtUtil(1_000);
+        String jwt = jwtUtil.generateToken(alice);
+        assertThat(jwtUtil.verify(jwt).username()).isEqualTo("alice");
+
+        Thread.sleep(1_500);
+
+        assertThatThrownBy(() -> jwtUtil.verify(jwt)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(jwtUtil.validateToken(jwt, "alice")).isFalse();
+    }
+
+    private static JwtUtil jwtUtil(long expiration) {
+        return jwtUtil(expiration, SECRET);
+    }
+
+    private static JwtUtil jwtUtil(long expiration, String secret) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", secret);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", expiration);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 100L);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.board.security;
+
+import com.example.board.support.StatementCounter;
+import com.example.board.support.StatementCounting;
+import com.example.board.support.TestDatabase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Requests authenticate from the token's claims alone; role changes and deletions still take
+// effect through the revocation versions
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@Import(StatementCounting.class)
+class TokenAuthenticationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, "token_authentication");
+    }
+
+    @Test
+    void validTokensAuthenticateWithoutTheDatabase() throws Exception {
+        JsonNode signup = signUp("claims");
+
+        StatementCounter.reset();
+        Authentication authentication = authenticate(signup.get("token").asText());
+
+        assertThat(StatementCounter.current()).isZero();
+        assertThat(authentication.getPrincipal()).isInstanceOf(AuthenticatedUser.class);
+        assertThat(((AuthenticatedUser) authentication.getPrincipal()).id()).isEqualTo(userId("claims"));
+        assertThat(authentication.getName()).isEqualTo("claims");
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void roleChangesRevokeEarlierTokens() throws Exception {
+        String before = signUp("promoted").get("token").asText();
+
+        mockMvc.perform(patch("/api/users/{id}/role", userId("promoted")).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"role\":\"ADMIN\"}").header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("ADMIN"))
+                .andExpect(jsonPath("$.password").doesNotExist())
+                .andExpect(jsonPath("$.tokenVersion").doesNotExist());
+
+        assertThat(authenticate(before)).isNull();
+        Authentication after = authenticate(logIn("promoted", "password123"));
+        assertThat(after.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void deletedUsersTokensAreRevoked() throws Exception {
+        String token = signUp("removed").get("token").asText();
+
+        mockMvc.perform(delete("/api/users/{id}", userId("removed"))
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken()))
+                .andExpect(status().isOk());
+
+        assertThat(authenticate(token)).isNull();
+    }
+
+    // Another replica's revocation reaches this one on the next poll of token_revocations
+    @Test
+    void revocationsFromOtherReplicasArePickedUp() throws Exception {
+        String token = signUp("elsewhere").get("token").asText();
+        assertThat(authenticate(token)).isNotNull();
+
+        jdbcTemplate.update("INSERT INTO token_revocations (user_id, min_token_version, created_at) VALUES (?, ?, now())",
+                userId("elsewhere"), TokenRevocationService.ALL_TOKENS);
+        tokenRevocationService.refresh();
+
+        assertThat(authenticate(token)).isNull();
+    }
+
+    // Runs the filter alone and returns the authentication it established, if any
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+        try {
+            jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(),
+                    (req, res) -> authentication.set(SecurityContextHolder.getContext().getAuthentication()));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return authentication.get();
+    }
+
+    private JsonNode signUp(String username) throws Exception {
+        String body = mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\","
+                                + "\"password\":\"password123\"}"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    // admin is seeded by DataLoader
+    private String adminToken() throws Exception {
+        return logIn("admin", "admin123");
+    }
+
+    private String logIn(String username, String password) throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+
+    private long userId(String username) {
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.board.service;
+
+import com.example.board.support.TestDatabase;
+import com.example.board.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A batch size of 2 spreads a sweep over several batches; the test drives them instead of the scheduler
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "board.comment-count.reconcile-batch-size=2",
+        "board.comment-count.reconcile-interval-ms=3600000",
+        "board.comment-count.sweep-interval=0s"
+})
+@AutoConfigureMockMvc
+class CommentCountReconcilerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CommentCountReconciler reconciler;
+
+    private TestFixtures fixtures;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, "comment_count_reconciler");
+    }
+
+    @BeforeEach
+    void fixtures() {
+        fixtures = new TestFixtures(jdbcTemplate);
+    }
+
+    @Test
+    void sweepsRepairDriftedCountsAndMoveOnTheirLists() throws Exception {
+        long authorId = fixtures.userId("user1");
+        long undercounted = fixtures.post(authorId, "undercounted");
+        long overcounted = fixtures.post(authorId, "overcounted");
+        long accurate = fixtures.post(authorId, "accurate");
+        fixtures.comment(accurate, authorId, null, "counted");
+        jdbcTemplate.update("UPDATE posts SET comment_count = 1 WHERE id = ?", accurate);
+        jdbcTemplate.update("UPDATE posts SET comment_count = 5 WHERE id = ?", overcounted);
+
+        mockMvc.perform(get("/api/posts/{id}", undercounted)).andExpect(jsonPath("$.commentCount").value(0));
+        String comments = "/api/posts/" + undercounted + "/comments";
+        String etag = mockMvc.perform(get(comments)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        // Written behind the app's back, so neither the count nor the cached post and list know about it
+        fixtures.comment(undercounted, authorId, null, "uncounted");
+        long accurateVersion = fixtures.commentsVersion(accurate);
+
+        sweep();
+
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM posts p
+                WHERE p.comment_count <> (SELECT count(*) FROM comments c WHERE c.post_id = p.id)
+                """, Long.class)).isZero();
+        assertThat(fixtures.commentCount(undercounted)).isEqualTo(1);
+        assertThat(fixtures.commentCount(overcounted)).isZero();
+        assertThat(fixtures.commentCount(accurate)).isEqualTo(1);
+        assertThat(fixtures.commentsVersion(accurate)).isEqualTo(accurateVersion);
+        mockMvc.perform(get("/api/posts/{id}", undercounted))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.commentCount").value(1));
+        mockMvc.perform(get(comments).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].content").value(contains("uncounted")));
+    }
+
+    // Runs batches until one finds no posts left, which ends the sweep
+    private void sweep() {
+        long posts = jdbcTemplate.queryForObject("SELECT count(*) FROM posts", Long.class);
+        for (long batch = 0; batch <= posts / 2 + 1; batch++) {
+            reconciler.reconcile();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.board.service;
+
+import com.example.board.support.TestDatabase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Subscribes over real HTTP, since MockMvc buffers the whole stream
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class CommentEventServiceTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CommentEventService commentEventService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<Stream<String>> streams = new ArrayList<>();
+    private String token;
+    private long postId;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, "comment_events");
+    }
+
+    // user1 is seeded by DataLoader
+    @BeforeEach
+    void createPost() throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"user1\",\"password\":\"user123\"}"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(body).get("token").asText();
+        postId = create("/api/posts", "{\"title\":\"live\",\"content\":\"thread\"}");
+    }
+
+    @AfterEach
+    void closeStreams() {
+        streams.forEach(Stream::close);
+    }
+
+    @Test
+    void everySubscriberOfThePostSeesCreationsAndDeletions() throws Exception {
+        BlockingQueue<String> first = subscribe(postId, null);
+        BlockingQueue<String> second = subscribe(postId, null);
+        long otherPost = create("/api/posts", "{\"title\":\"quiet\",\"content\":\"thread\"}");
+        BlockingQueue<String> elsewhere = subscribe(otherPost, null);
+
+        long commentId = create("/api/posts/" + postId + "/comments", "{\"content\":\"pushed\"}");
+        for (BlockingQueue<String> lines : List.of(first, second)) {
+            await(lines, "id:c" + commentId);
+            await(lines, "event:comment-created");
+            assertThat(await(lines, "data:")).contains("\"content\":\"pushed\"");
+        }
+
+        mockMvc.perform(delete("/api/posts/{postId}/comments/{commentId}", postId, commentId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+        for (BlockingQueue<String> lines : List.of(first, second)) {
+            await(lines, "id:d" + commentId);
+            await(lines, "event:comment-deleted");
+        }
+
+        commentEventService.heartbeat();
+        await(elsewhere, ":heartbeat");
+        assertThat(elsewhere).noneMatch(line -> line.startsWith("id:"));
+    }
+
+    // Every replica takes its events from LISTEN/NOTIFY, so one sent by another replica looks the same
+    @Test
+    void notificationsFromOtherReplicasAreDelivered() throws Exception {
+        BlockingQueue<String> lines = subscribe(postId, null);
+
+        jdbcTemplate.queryForList("SELECT pg_notify('board_comments', ?)", "comment-deleted|" + postId + "|12345|");
+
+        await(lines, "id:d12345");
+        assertThat(await(lines, "data:")).contains("\"id\":12345");
+    }
+
+    @Test
+    void reconnectingResumesAfterTheLastEventId() throws Exception {
+        BlockingQueue<String> lines = subscribe(postId, null);
+        long seen = create("/api/posts/" + postId + "/comments", "{\"content\":\"seen\"}");
+        await(lines, "id:c" + seen);
+
+        long missed = create("/api/posts/" + postId + "/comments", "{\"content\":\"missed\"}");
+        await(lines, "id:c" + missed);
+        BlockingQueue<String> resumed = subscribe(postId, "c" + seen);
+        assertThat(await(resumed, "id:")).isEqualTo("id:c" + missed);
+
+        // Too far back to replay, so the client is told to refetch
+        BlockingQueue<String> stale = subscribe(postId, "c0");
+        await(stale, "event:reset");
+    }
+
+    private BlockingQueue<String> subscribe(long postId, String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/posts/" + postId + "/comments/events"));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        Stream<String> body = client.send(request.build(), HttpResponse.BodyHandlers.ofLines()).body();
+        streams.add(body);
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                body.forEach(lines::add);
+            } catch (UncheckedIOException e) {
+                // Closed by closeStreams
+            }
+        });
+        // Subscribed once the stream has opened
+        await(lines, ":connected");
+        return lines;
+    }
+
+    // Skips lines until one starts with the prefix
+    private static String await(BlockingQueue<String> lines, String prefix) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            String line = lines.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (line != null && line.startsWith(prefix)) {
+                return line;
+            }
+        }
+        throw new AssertionError("No line starting with " + prefix);
+    }
+
+    private long create(String path, String body) throws Exception {
+        String response = mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.board.service;
+
+import com.example.board.repository.UserRepository;
+import com.example.board.support.TestDatabase;
+import com.example.board.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A batch size of 2 spreads each purge over several batches; only purgeSoon starts one
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "board.deletion.batch-size=2",
+        "board.deletion.batch-pause-ms=0",
+        "board.deletion.interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class DeletionServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DeletionService deletionService;
+    @Autowired
+    private DataSource dataSource;
+
+    private TestFixtures fixtures;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, "deletion_service");
+    }
+
+    @BeforeEach
+    void fixtures() {
+        fixtures = new TestFixtures(jdbcTemplate);
+    }
+
+    // The deleted user's comments go with every reply under them, theirs or not, and the
+    // comment counts of the posts they were on follow; everyone else's comments stay
+    @Test
+    void purgingAUserTakesTheirCommentsAndRepliesWithThem() throws Exception {
+        long other = fixtures.user("bystander");
+        long doomed = fixtures.user("doomed");
+        long otherPost = fixtures.post(other, "stays");
+        long doomedPost = fixtures.post(doomed, "goes");
+
+        long kept = fixtures.comment(otherPost, other, null, "kept");
+        long root = fixtures.comment(otherPost, doomed, kept, "root");
+        long reply = root;
+        // Alternating authors, so the user's comments also sit deep inside their own subtrees
+        for (int depth = 0; depth < 6; depth++) {
+            reply = fixtures.comment(otherPost, depth % 2 == 0 ? other : doomed, reply, "reply " + depth);
+        }
+        fixtures.comment(otherPost, other, root, "sibling");
+        fixtures.comment(otherPost, doomed, null, "second root");
+        fixtures.comment(doomedPost, other, null, "on the user's post");
+        fixtures.recountComments();
+
+        userRepository.tombstoneById(doomed, LocalDateTime.now());
+        // The tombstoned user is gone from lookups at once, while their comments wait for the purge
+        assertThat(userRepository.findById(doomed)).isEmpty();
+        assertThat(userRepository.existsByUsername("doomed")).isTrue();
+        mockMvc.perform(get("/api/posts/{postId}/comments", otherPost)).andExpect(status().isOk());
+
+        purgeUntilGone("users", doomed);
+
+        assertThat(jdbcTemplate.queryForList("SELECT content FROM comments WHERE post_id = ?", String.class, otherPost))
+                .containsExactly("kept");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM posts WHERE id = ?", Long.class, doomedPost))
+                .isZero();
+        assertThat(fixtures.commentCount(otherPost)).isEqualTo(1);
+        mockMvc.perform(get("/api/posts/{postId}/comments", otherPost))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].content").value(contains("kept")));
+        assertThat(userRepository.existsByUsername("doomed")).isFalse();
+    }
+
+    // Listed once for all posts: the user's comments on each post take their replies along, and
+    // every post they were on gets its count and comments_version moved
+    @Test
+    void purgingAUserRepairsEveryPostTheirSubtreesSpan() throws Exception {
+        long other = fixtures.user("neighbour");
+        long doomed = fixtures.user("wanderer");
+        List<Long> posts = List.of(fixtures.post(other, "first"), fixtures.post(other, "second"));
+        for (long postId : posts) {
+            fixtures.comment(postId, other, null, "stays");
+            long root = fixtures.comment(postId, doomed, null, "root");
+            long reply = fixtures.comment(postId, other, root, "reply");
+            fixtures.comment(postId, doomed, reply, "nested");
+            fixtures.comment(postId, other, reply, "nested sibling");
+        }
+        fixtures.recountComments();
+        List<Long> versions = posts.stream().map(fixtures::commentsVersion).toList();
+
+        userRepository.tombstoneById(doomed, LocalDateTime.now());
+        purgeUntilGone("users", doomed);
+
+        for (int i = 0; i < posts.size(); i++) {
+            long postId = posts.get(i);
+            assertThat(jdbcTemplate.queryForList("SELECT content FROM comments WHERE post_id = ?", String.class, postId))
+                    .containsExactly("stays");
+            assertThat(fixtures.commentCount(postId)).isEqualTo(1);
+            assertThat(fixtures.commentsVersion(postId)).isGreaterThan(versions.get(i));
+        }
+    }
+
+    // A chain deeper than the batch size, with branches: each batch may only take comments that
+    // nothing replies to any more
+    @Test
+    void purgingAPostTakesCommentsWithRepliesLeavesFirst() throws Exception {
+        long author = fixtures.user("threaded");
+        long thread = fixtures.post(author, "threaded");
+        long root = fixtures.comment(thread, author, null, "root");
+        long reply = root;
+        for (int depth = 0; depth < 5; depth++) {
+            reply = fixtures.comment(thread, author, reply, "reply " + depth);
+            fixtures.comment(thread, author, reply, "branch " + depth);
+        }
+        fixtures.comment(thread, author, root, "sibling");
+
+        jdbcTemplate.update("UPDATE posts SET deleted_at = now() WHERE id = ?", thread);
+        purgeUntilGone("posts", thread);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM comments WHERE post_id = ?", Long.class, thread))
+                .isZero();
+    }
+
+    // A tombstone another replica holds is skipped rather than waited on, and claimed once it is let go
+    @Test
+    void lockedTombstonesAreSkippedAndClaimedOnceReleased() throws Exception {
+        long author = fixtures.user("contended");
+        long held = fixtures.post(author, "held");
+        long free = fixtures.post(author, "free");
+        fixtures.comment(held, author, null, "waits");
+        // The held post was deleted first, so it would be claimed first
+        jdbcTemplate.update("UPDATE posts SET deleted_at = now() - interval '1 minute' WHERE id = ?", held);
+        jdbcTemplate.update("UPDATE posts SET deleted_at = now() WHERE id = ?", free);
+
+        try (Connection replica = dataSource.getConnection()) {
+            replica.setAutoCommit(false);
+            try (Statement statement = replica.createStatement()) {
+                statement.execute("SELECT id FROM posts WHERE id = " + held + " FOR NO KEY UPDATE");
+            }
+            purgeUntilGone("posts", free);
+            assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM comments WHERE post_id = ?", Long.class, held))
+                    .isEqualTo(1);
+            replica.rollback();
+        }
+
+        purgeUntilGone("posts", held);
+    }
+
+    private void purgeUntilGone(String table, long id) throws InterruptedException {
+        for (int i = 0; i < 100 && exists(table, id); i++) {
+            deletionService.purgeSoon();
+            Thread.sleep(100);
+        }
+        assertThat(exists(table, id)).isFalse();
+    }
+
+    private boolean exists(String table, long id) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table + " WHERE id = ?)", Boolean.class, id));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.board.service;
+
+import com.example.board.cache.CacheInvalidator;
+import com.example.board.cache.CacheNames;
+import com.example.board.notify.PgNotificationBus;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ViewCountServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int VIEWS_PER_THREAD = 200_000;
+    // Sparse views per post, so flushes keep finding idle counters and dropping them
+    private static final int POSTS = 5_000;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final CacheInvalidator cacheInvalidator = mock(CacheInvalidator.class);
+    private final PgNotificationBus notificationBus = mock(PgNotificationBus.class);
+    private final AtomicLong flushed = new AtomicLong();
+    private final ViewCountService service = new ViewCountService(jdbcTemplate,
+            new TransactionTemplate(transactionManager), cacheInvalidator, notificationBus);
+
+    @Test
+    void viewsRecordedDuringFlushesAreAllWrittenBack() throws InterruptedException {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> batch = invocation.getArgument(1);
+            batch.forEach(row -> flushed.addAndGet((Long) row[0]));
+            return new int[batch.size()];
+        });
+
+        CountDownLatch done = new CountDownLatch(THREADS);
+        List<Thread> viewers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            viewers.add(Thread.ofPlatform().start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < VIEWS_PER_THREAD; i++) {
+                    service.increment((long) random.nextInt(POSTS));
+                }
+                done.countDown();
+            }));
+        }
+        AtomicBoolean flushing = new AtomicBoolean(true);
+        Thread flusher = Thread.ofPlatform().start(() -> {
+            while (flushing.get()) {
+                service.flush();
+            }
+        });
+
+        done.await();
+        flushing.set(false);
+        flusher.join();
+        for (Thread viewer : viewers) {
+            viewer.join();
+        }
+        service.flush();
+
+        assertThat(flushed.get()).isEqualTo((long) THREADS * VIEWS_PER_THREAD);
+    }
+
+    @Test
+    void failedFlushKeepsTheViews() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new IllegalStateException("down"));
+        service.increment(1L);
+        service.increment(1L);
+
+        service.flush();
+
+        assertThat(service.pendingCount(1L)).isEqualTo(2);
+        verify(transactionManager).rollback(any());
+        verify(cacheInvalidator, never()).evict(anyString(), any());
+    }
+
+    @Test
+    void flushedPostsAreEvictedOnEveryReplica() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[2]);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(notificationBus).publishTogether(any());
+        service.increment(1L);
+        service.increment(2L);
+
+        service.flush();
+
+        verify(transactionManager).commit(any());
+        verify(cacheInvalidator).evict(CacheNames.POST_DETAIL, 1L);
+        verify(cacheInvalidator).evict(CacheNames.POST_DETAIL, 2L);
+        verify(notificationBus).publishTogether(any());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.board.support;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Captures the prepared statements executed on the current thread, with their bind calls,
+// so QueryPlanRegressionTest can EXPLAIN exactly what Hibernate and JdbcTemplate sent.
+public class RecordingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<List<RecordedStatement>> RECORDING = new ThreadLocal<>();
+
+    public RecordingDataSource(DataSource target) {
+        super(target);
+    }
+
+    public static void start() {
+        RECORDING.set(new ArrayList<>());
+    }
+
+    public static List<RecordedStatement> stop() {
+        List<RecordedStatement> recorded = RECORDING.get();
+        RECORDING.remove();
+        return recorded != null ? recorded : List.of();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return recording(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return recording(super.getConnection(username, password));
+    }
+
+    private Connection recording(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")
+                            && RECORDING.get() != null) {
+                        return recording(statement, (String) args[0]);
+                    }
+                    return result;
+                });
+    }
+
+    private PreparedStatement recording(PreparedStatement statement, String sql) {
+        List<Bind> binds = new ArrayList<>();
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        binds.add(new Bind(method, args));
+                    } else if (name.equals("clearParameters")) {
+                        binds.clear();
+                    } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                        List<RecordedStatement> recorded = RECORDING.get();
+                        if (recorded != null) {
+                            recorded.add(new RecordedStatement(sql, List.copyOf(binds)));
+                        }
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    public record RecordedStatement(String sql, List<Bind> binds) {
+
+        // Repeats the recorded set* calls on another statement with the same placeholders
+        public void bind(PreparedStatement statement) throws SQLException {
+            for (Bind bind : binds) {
+                try {
+                    bind.method().invoke(statement, bind.args());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Could not replay " + bind.method().getName(), e);
+                }
+            }
+        }
+    }
+
+    public record Bind(Method method, Object[] args) {
+    }
+}
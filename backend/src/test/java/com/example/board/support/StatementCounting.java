@@ -0,0 +1,26 @@
+package com.example.board.support;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+// Wraps the application DataSource in StatementCounter for the test classes that import it
+@TestConfiguration
+public class StatementCounting {
+
+    @Bean
+    static BeanPostProcessor statementCounter() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCounter)) {
+                    return new StatementCounter(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.board.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// One embedded PostgreSQL server per test JVM, the same major version the cluster runs, started
+// from bundled binaries so tests need neither Docker nor a database on the machine. Each test
+// class gets a database of its own, so fixtures of different classes never meet.
+public final class TestDatabase {
+
+    private static EmbeddedPostgres server;
+
+    private TestDatabase() {
+    }
+
+    // Points spring.datasource at a fresh database on the shared server; call from @DynamicPropertySource
+    public static void register(DynamicPropertyRegistry registry, String database) {
+        String url = create(database);
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    // Direct access to a database created by register(), e.g. to lay out a schema before the context starts
+    public static DataSource dataSource(String database) {
+        return server.getDatabase("postgres", database);
+    }
+
+    // Creates a fresh database on the shared server and returns its JDBC URL, for tests that build their own pools
+    public static synchronized String create(String database) {
+        try {
+            if (server == null) {
+                server = EmbeddedPostgres.builder().start();
+                Runtime.getRuntime().addShutdownHook(new Thread(TestDatabase::stop, "embedded-postgres-stop"));
+            }
+            try (Connection connection = server.getPostgresDatabase().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP DATABASE IF EXISTS " + database);
+                statement.execute("CREATE DATABASE " + database);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create database " + database, e);
+        }
+        return server.getJdbcUrl("postgres", database);
+    }
+
+    private static void stop() {
+        try {
+            server.close();
+        } catch (IOException e) {
+            // The JVM is exiting anyway
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.board.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Rows written straight to the database, for states the API would not produce (drifted counts,
+// deep reply chains, databases from before migrations). Nothing here maintains comment_count;
+// call recountComments() when a test needs it right.
+public final class TestFixtures {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TestFixtures(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long user(String username) {
+        return jdbcTemplate.queryForObject("INSERT INTO users (username, email, password, role, created_at) " +
+                "VALUES (?, ?, 'x', 'USER', now()) RETURNING id", Long.class, username, username + "@example.com");
+    }
+
+    // user1 is seeded by DataLoader
+    public long userId(String username) {
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+    }
+
+    public long post(long authorId, String title) {
+        return jdbcTemplate.queryForObject("INSERT INTO posts (title, content, author_id, view_count, created_at, updated_at) " +
+                "VALUES (?, 'content', ?, 0, now(), now()) RETURNING id", Long.class, title, authorId);
+    }
+
+    public long comment(long postId, long authorId, Long parentId, String content) {
+        return jdbcTemplate.queryForObject("INSERT INTO comments (content, author_id, post_id, parent_id, created_at) " +
+                "VALUES (?, ?, ?, ?, now()) RETURNING id", Long.class, content, authorId, postId, parentId);
+    }
+
+    public void recountComments() {
+        jdbcTemplate.update("UPDATE posts p SET comment_count = (SELECT count(*) FROM comments c WHERE c.post_id = p.id)");
+    }
+
+    public long commentCount(long postId) {
+        return jdbcTemplate.queryForObject("SELECT comment_count FROM posts WHERE id = ?", Long.class, postId);
+    }
+
+    public long commentsVersion(long postId) {
+        return jdbcTemplate.queryForObject("SELECT comments_version FROM posts WHERE id = ?", Long.class, postId);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.board.trending;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SpaceSavingTopKTest {
+
+    @Test
+    void keepsExactScoresWhileUnderCapacity() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(10);
+        topK.add(1, 3);
+        topK.add(2, 5);
+        topK.add(1, 4);
+
+        List<SpaceSavingTopK.Counter> top = topK.top(10);
+
+        assertThat(top).extracting(counter -> counter.id).containsExactly(1L, 2L);
+        assertThat(top.get(0).score).isEqualTo(7);
+        assertThat(top).allSatisfy(counter -> assertThat(counter.error).isZero());
+    }
+
+    @Test
+    void findsHeavyHittersInALongTailAndBoundsTheirError() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(50);
+        Random random = new Random(42);
+        double[] truth = new double[10_000];
+        for (int i = 0; i < 200_000; i++) {
+            // Ten hot posts take a third of the hits, the rest are spread over the tail
+            int id = random.nextInt(3) == 0 ? random.nextInt(10) : 10 + random.nextInt(truth.length - 10);
+            truth[id]++;
+            topK.add(id, 1);
+        }
+
+        List<SpaceSavingTopK.Counter> top = topK.top(10);
+
+        assertThat(top).extracting(counter -> counter.id)
+                .containsExactlyInAnyOrder(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+        for (SpaceSavingTopK.Counter counter : top) {
+            double actual = truth[(int) counter.id];
+            assertThat(counter.score).isGreaterThanOrEqualTo(actual);
+            assertThat(counter.score - counter.error).isLessThanOrEqualTo(actual);
+        }
+    }
+
+    @Test
+    void raiseNeverLowersAScore() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(10);
+        topK.add(1, 5);
+        topK.raise(1, 3);
+        topK.raise(2, 4);
+
+        assertThat(topK.top(2)).extracting(counter -> counter.score).containsExactly(5.0, 4.0);
+    }
+
+    @Test
+    void scaleMultipliesScoresAndErrors() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(1);
+        topK.add(1, 4);
+        topK.add(2, 2);
+        topK.scale(0.5);
+
+        SpaceSavingTopK.Counter counter = topK.top(1).get(0);
+        assertThat(counter.id).isEqualTo(2);
+        assertThat(counter.score).isCloseTo(3, within(1e-9));
+        assertThat(counter.error).isCloseTo(2, within(1e-9));
+    }
+}
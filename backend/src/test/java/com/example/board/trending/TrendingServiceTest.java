@@ -0,0 +1,86 @@
+package com.example.board.trending;
+
+import com.example.board.notify.PgNotificationBus;
+import com.example.board.repository.PostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+
+class TrendingServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int HITS_PER_THREAD = 100_000;
+    private static final int POSTS = 500;
+
+    private TrendingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TrendingService(mock(JdbcTemplate.class), mock(TransactionTemplate.class),
+                mock(PgNotificationBus.class), mock(PostRepository.class), new SimpleMeterRegistry());
+        // Decay this slow leaves every weight at its face value for the length of the test
+        ReflectionTestUtils.setField(service, "halfLife", Duration.ofDays(100_000));
+        ReflectionTestUtils.setField(service, "commentWeight", 5);
+        ReflectionTestUtils.setField(service, "capacity", POSTS);
+        ReflectionTestUtils.setField(service, "maxK", 10);
+        service.init();
+    }
+
+    @Test
+    void ranksByViewsAndWeightedComments() {
+        for (int i = 0; i < 10; i++) {
+            service.recordView(1L);
+        }
+        for (int i = 0; i < 3; i++) {
+            service.recordComment(2L);
+        }
+        service.recordView(3L);
+        service.fold();
+
+        assertThat(service.topPostIds(3)).containsExactly(2L, 1L, 3L);
+        assertThat(service.topPostIds(1)).containsExactly(2L);
+    }
+
+    @Test
+    void hitsRecordedDuringFoldsAreAllCounted() throws InterruptedException {
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < HITS_PER_THREAD; i++) {
+                    service.recordView((long) random.nextInt(POSTS));
+                }
+            }));
+        }
+        AtomicBoolean folding = new AtomicBoolean(true);
+        Thread folder = Thread.ofPlatform().start(() -> {
+            while (folding.get()) {
+                service.fold();
+            }
+        });
+
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        folding.set(false);
+        folder.join();
+        service.fold();
+
+        SpaceSavingTopK summary = (SpaceSavingTopK) ReflectionTestUtils.getField(service, "summary");
+        double total = summary.top(POSTS).stream().mapToDouble(counter -> counter.score).sum();
+        assertThat(total).isCloseTo(THREADS * HITS_PER_THREAD, within(1.0));
+    }
+}
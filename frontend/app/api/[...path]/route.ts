@@ -3,6 +3,9 @@ import { NextRequest, NextResponse } from 'next/server';
 // Runtime proxy for all /api/* requests
 // This allows BACKEND_URL to be read at runtime, not build time
 
+const CONDITIONAL_REQUEST_HEADERS = ['if-none-match', 'if-modified-since', 'last-event-id'];
+const VALIDATOR_RESPONSE_HEADERS = ['etag', 'last-modified', 'cache-control'];
+
 export async function GET(
   request: NextRequest,
   { params }: { params: { path: string[] } }
@@ -21,12 +24,41 @@ export async function GET(
   if (token) {
     headers['Authorization'] = token;
   }
+  // Let the browser revalidate against the backend validators
+  for (const name of CONDITIONAL_REQUEST_HEADERS) {
+    const value = request.headers.get(name);
+    if (value) {
+      headers[name] = value;
+    }
+  }
 
   try {
-    const response = await fetch(url, { headers });
-    const data = await response.json();
-    
-    return NextResponse.json(data, { status: response.status });
+    // The backend decides freshness; don't keep a second copy in the Next.js data cache.
+    // The signal closes event streams on the backend when the browser goes away.
+    const response = await fetch(url, { headers, cache: 'no-store', signal: request.signal });
+    const responseHeaders = new Headers();
+    for (const name of VALIDATOR_RESPONSE_HEADERS) {
+      const value = response.headers.get(name);
+      if (value) {
+        responseHeaders.set(name, value);
+      }
+    }
+
+    if (response.status === 304) {
+      return new NextResponse(null, { status: 304, headers: responseHeaders });
+    }
+
+    // Relay event streams as they arrive instead of buffering them
+    const contentType = response.headers.get('content-type') || 'application/json';
+    if (contentType.startsWith('text/event-stream')) {
+      responseHeaders.set('Content-Type', contentType);
+      responseHeaders.set('Cache-Control', 'no-cache');
+      return new Response(response.body, { status: response.status, headers: responseHeaders });
+    }
+
+    // Pass the body through untouched so the ETag still describes it
+    responseHeaders.set('Content-Type', contentType);
+    return new NextResponse(await response.text(), { status: response.status, headers: responseHeaders });
   } catch (error) {
     console.error(`[Proxy Error] ${url}:`, error);
     return NextResponse.json(
@@ -11,6 +11,7 @@ interface Post {
   content: string;
   authorUsername: string;
   viewCount: number;
+  commentCount: number;
   createdAt: string;
 }
 
@@ -20,16 +21,17 @@ export default function Home() {
   const [totalPages, setTotalPages] = useState(0);
   const [search, setSearch] = useState('');
   const [searchInput, setSearchInput] = useState('');
+  const [sort, setSort] = useState<'latest' | 'comments'>('latest');
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
     fetchPosts();
-  }, [currentPage, search]);
+  }, [currentPage, search, sort]);
 
   const fetchPosts = async () => {
     setLoading(true);
     try {
-      const response = await postsApi.getAll(currentPage, 10, search);
+      const response = await postsApi.getAll(currentPage, 10, search, sort);
       setPosts(response.data.content);
       setTotalPages(response.data.totalPages);
     } catch (error) {
@@ -86,6 +88,27 @@ export default function Home() {
         </div>
       </form>
 
+      {/* Sort order; search results are ranked by relevance instead */}
+      {!search && (
+        <div className="mb-4 flex gap-2 text-sm">
+          {([['latest', '최신순'], ['comments', '댓글순']] as const).map(([value, label]) => (
+            <button
+              key={value}
+              type="button"
+              onClick={() => {
+                setSort(value);
+                setCurrentPage(0);
+              }}
+              className={`px-3 py-1 rounded-full ${
+                sort === value ? 'bg-blue-600 text-white' : 'bg-gray-200 text-gray-700 hover:bg-gray-300'
+              }`}
+            >
+              {label}
+            </button>
+          ))}
+        </div>
+      )}
+
       {/* Posts list */}
       <div className="bg-white rounded-lg shadow">
         {loading ? (
@@ -14,6 +14,7 @@ interface Post {
   content: string;
   authorUsername: string;
   viewCount: number;
+  commentCount: number;
   createdAt: string;
   updatedAt: string;
 }
@@ -94,6 +95,7 @@ export default function PostDetailPage() {
             <div className="space-x-4">
               <span className="font-semibold">{post.authorUsername}</span>
               <span>조회 {post.viewCount}</span>
+              <span>댓글 {post.commentCount}</span>
               <span>{formatDistanceToNow(post.createdAt)}</span>
             </div>
             {isAuthor && (
@@ -1,6 +1,6 @@
 'use client';
 
-import { useState } from 'react';
+import { useState, useEffect } from 'react';
 import { formatDistanceToNow } from '@/lib/utils';
 import { comments as commentsApi } from '@/lib/api';
 import { isAuthenticated, getAuth } from '@/lib/auth';
@@ -26,6 +26,24 @@ export default function CommentSection({ postId, initialComments }: CommentSecti
   const [replyContent, setReplyContent] = useState('');
   const [loading, setLoading] = useState(false);
 
+  // Live updates from other readers; EventSource reconnects and resumes on its own
+  useEffect(() => {
+    const source = commentsApi.subscribe(postId);
+    source.addEventListener('comment-created', (e) => {
+      const comment: Comment = JSON.parse((e as MessageEvent).data);
+      setComments(prev => prev.some(c => c.id === comment.id) ? prev : [...prev, comment]);
+    });
+    source.addEventListener('comment-deleted', (e) => {
+      const { id } = JSON.parse((e as MessageEvent).data);
+      setComments(prev => prev.filter(c => c.id !== id));
+    });
+    source.addEventListener('reset', async () => {
+      const response = await commentsApi.getByPostId(postId);
+      setComments(response.data);
+    });
+    return () => source.close();
+  }, [postId]);
+
   const handleSubmitComment = async (e: React.FormEvent) => {
     e.preventDefault();
     if (!newComment.trim()) return;
@@ -6,9 +6,10 @@ import { formatDistanceToNow } from '@/lib/utils';
 interface Post {
   id: number;
   title: string;
-  content: string;
+  excerpt: string;
   authorUsername: string;
   viewCount: number;
+  commentCount: number;
   createdAt: string;
 }
 
@@ -40,11 +41,12 @@ export default function PostList({ posts }: PostListProps) {
                   {post.title}
                 </h3>
                 <p className="mt-1 text-sm text-gray-600 line-clamp-2">
-                  {post.content}
+                  {post.excerpt}
                 </p>
                 <div className="mt-2 flex items-center space-x-4 text-sm text-gray-500">
                   <span>{post.authorUsername}</span>
                   <span>조회 {post.viewCount}</span>
+                  <span>댓글 {post.commentCount}</span>
                   <span>{formatDistanceToNow(post.createdAt)}</span>
                 </div>
               </div>
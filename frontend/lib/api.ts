@@ -39,9 +39,10 @@ export const users = {
 
 // Post API
 export const posts = {
-  getAll: (page = 0, size = 10, search?: string) => {
+  getAll: (page = 0, size = 10, search?: string, sort = 'latest') => {
     const params: any = { page, size };
     if (search) params.search = search;
+    else params.sort = sort;
     return api.get('/api/posts', { params });
   },
   
@@ -66,6 +67,10 @@ export const comments = {
   
   delete: (postId: number, commentId: number) =>
     api.delete(`/api/posts/${postId}/comments/${commentId}`),
+
+  // Server-Sent Events: comment-created, comment-deleted, and reset when the list must be refetched
+  subscribe: (postId: number) =>
+    new EventSource(`/api/posts/${postId}/comments/events`),
 };
 
 export default api;